@@ -0,0 +1,44 @@
+package com.example.querydsl.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * endpoint 하나의 latency 분포와 오류 수를 기록한다.
+ * latency 는 실제 전송 시각이 아니라 예정된 전송 시각부터 재므로 coordinated omission 이 보정된다.
+ */
+public class EndpointRecorder {
+    private final Histogram histogram = new ConcurrentHistogram(3);
+
+    private final LongAdder errors = new LongAdder();
+
+    public void success(long latencyNanos) {
+        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    public void failure(long latencyNanos) {
+        errors.increment();
+        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    public EndpointResult toResult(double seconds) {
+        long count = histogram.getTotalCount();
+        long errorCount = errors.sum();
+        return new EndpointResult(
+            count,
+            errorCount,
+            count == 0 ? 0 : (double) errorCount / count,
+            count / seconds,
+            millis(histogram.getValueAtPercentile(50)),
+            millis(histogram.getValueAtPercentile(90)),
+            millis(histogram.getValueAtPercentile(99)),
+            millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.querydsl.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointResult {
+    private long count;
+    private long errors;
+    private double errorRate;
+    private double throughput;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double p999;
+    private double max;
+}
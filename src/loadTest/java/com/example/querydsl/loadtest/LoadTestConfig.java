@@ -0,0 +1,78 @@
+package com.example.querydsl.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import lombok.Value;
+
+/**
+ * loadtest.properties 를 읽고 같은 이름의 시스템 프로퍼티로 덮어쓴다.
+ */
+@Value
+public class LoadTestConfig {
+    int members;
+    int teams;
+    Duration warmup;
+    Duration duration;
+    Duration timeout;
+    // endpoint -> 초당 요청 수
+    Map<String, Integer> rates;
+    long seed;
+    // 측정하는 동안 bulk 배치 작업을 계속 돌려 interactive latency 가 영향을 받는지 본다.
+    boolean backgroundBulk;
+    Path report;
+    Path baseline;
+    boolean writeBaseline;
+
+    public static LoadTestConfig load() {
+        Properties properties = new Properties();
+        try (InputStream in = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+            .filter(name -> name.startsWith("loadtest."))
+            .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+
+        // 결과는 커밋해서 남긴다. background-bulk 로 잰 결과는 따로 둔다.
+        boolean backgroundBulk = Boolean.parseBoolean(properties.getProperty("loadtest.background-bulk", "false"));
+        String report = backgroundBulk ? "loadtest/report-background-bulk.json" : "loadtest/report.json";
+
+        return new LoadTestConfig(
+            Integer.parseInt(properties.getProperty("loadtest.members", "100000")),
+            Integer.parseInt(properties.getProperty("loadtest.teams", "100")),
+            Duration.parse(properties.getProperty("loadtest.warmup", "PT10S")),
+            Duration.parse(properties.getProperty("loadtest.duration", "PT60S")),
+            Duration.parse(properties.getProperty("loadtest.timeout", "PT5S")),
+            parseRates(properties.getProperty("loadtest.rates", "v2=10")),
+            Long.parseLong(properties.getProperty("loadtest.seed", "42")),
+            backgroundBulk,
+            Paths.get(properties.getProperty("loadtest.report", report)),
+            Paths.get(properties.getProperty("loadtest.baseline", "loadtest/baseline.json")),
+            Boolean.parseBoolean(properties.getProperty("loadtest.write-baseline", "false")));
+    }
+
+    private static Map<String, Integer> parseRates(String value) {
+        Map<String, Integer> rates = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.rates entry: " + entry);
+            }
+            int rate = Integer.parseInt(pair[1].trim());
+            if (rate > 0) {
+                rates.put(pair[0].trim(), rate);
+            }
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.querydsl.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * endpoint 별 결과를 출력/저장하고 baseline 과 비교한다.
+ * 어떤 조건(시드 크기, 도착률, DataSource 구성 등)으로 잰 결과인지 settings 로 함께 남긴다.
+ */
+public class LoadTestReport {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, String> settings;
+
+    private final Map<String, EndpointResult> results;
+
+    public LoadTestReport(Map<String, String> settings, Map<String, EndpointResult> results) {
+        this.settings = new LinkedHashMap<>(settings);
+        this.results = new TreeMap<>(results);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-8s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+            "endpoint", "count", "err%", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        results.forEach((endpoint, r) -> out.printf(
+            "%-8s %8d %7.2f %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            endpoint, r.getCount(), r.getErrorRate() * 100, r.getThroughput(),
+            r.getP50(), r.getP90(), r.getP99(), r.getP999(), r.getMax()));
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), new Json(settings, results));
+    }
+
+    // baseline 대비 변화율. latency 는 + 가 느려진 것, throughput 은 - 가 줄어든 것이다.
+    public void printDiff(Path baselinePath, PrintStream out) throws IOException {
+        if (!Files.exists(baselinePath)) {
+            out.println("No baseline at " + baselinePath + " (run with -Dloadtest.write-baseline=true)");
+            return;
+        }
+
+        Json json = MAPPER.readValue(baselinePath.toFile(), Json.class);
+        Map<String, EndpointResult> baseline = json.getEndpoints();
+
+        out.println("Diff against " + baselinePath);
+        // 조건이 다르면 차이가 변경 때문인지 알 수 없으므로 먼저 보여 준다.
+        settings.forEach((key, value) -> {
+            String base = json.getSettings().get(key);
+            if (!value.equals(base)) {
+                out.printf("  setting %s: %s -> %s%n", key, base, value);
+            }
+        });
+        out.printf("%-8s %9s %9s %9s %9s %11s%n",
+            "endpoint", "req/s", "p50", "p99", "p999", "err%(abs)");
+        results.forEach((endpoint, current) -> {
+            EndpointResult base = baseline.get(endpoint);
+            if (base == null) {
+                out.printf("%-8s (not in baseline)%n", endpoint);
+                return;
+            }
+            out.printf("%-8s %9s %9s %9s %9s %+11.2f%n", endpoint,
+                change(base.getThroughput(), current.getThroughput()),
+                change(base.getP50(), current.getP50()),
+                change(base.getP99(), current.getP99()),
+                change(base.getP999(), current.getP999()),
+                (current.getErrorRate() - base.getErrorRate()) * 100);
+        });
+    }
+
+    private static String change(double base, double current) {
+        if (base == 0) {
+            return "n/a";
+        }
+        return String.format("%+.1f%%", (current - base) / base * 100);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Json {
+        private Map<String, String> settings = new LinkedHashMap<>();
+        private Map<String, EndpointResult> endpoints = new TreeMap<>();
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.querydsl.loadtest;
+
+import static com.example.querydsl.domain.QMember.member;
+
+import com.example.querydsl.QueryDslApplication;
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.MemberNameTrigram;
+import com.example.querydsl.domain.Names;
+import com.example.querydsl.repository.batch.MemberBatchRunner;
+import com.example.querydsl.repository.batch.MemberChunkProcessor;
+import com.example.querydsl.repository.statistics.TeamStatisticsReconciler;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 시드된 인메모리 H2 위에 애플리케이션을 띄우고 endpoint 별 고정 도착률(open model)로 요청을 보낸다.
+ * 응답이 느려져도 전송 간격은 유지되므로 latency 가 처리량 제한에 가려지지 않는다.
+ *
+ * <pre>
+ * ./gradlew loadTest
+ * ./gradlew loadTest -Dloadtest.rates=v2=200,v3=200 -Dloadtest.duration=PT2M
+ * ./gradlew loadTest -Dloadtest.write-baseline=true
+ * ./gradlew loadTest -Dloadtest.background-bulk=true
+ * </pre>
+ *
+ * 결과는 loadtest/report.json (background-bulk 면 loadtest/report-background-bulk.json) 에 쓰고 변경과 함께 커밋한다.
+ */
+@Slf4j
+public class LoadTestRunner {
+    // DataSource 구성은 local 프로필과 같게 둔다. (p6spy proxy 는 켜고 기본 로거 대신 SQL 샘플링)
+    // p6spy 를 끄고 재면 proxy 비용이 빠져 운영보다 좋게 나오므로, 바꾼다면 보고서의 settings 로 드러나게 한다.
+    private static final Map<String, String> APPLICATION_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        APPLICATION_PROPERTIES.put("server.port", "0");
+        APPLICATION_PROPERTIES.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        APPLICATION_PROPERTIES.put("spring.datasource.username", "sa");
+        APPLICATION_PROPERTIES.put("spring.jpa.open-in-view", "false");
+        APPLICATION_PROPERTIES.put("spring.jpa.hibernate.ddl-auto", "create");
+        APPLICATION_PROPERTIES.put("spring.jpa.properties.hibernate.default_batch_fetch_size", "1000");
+        APPLICATION_PROPERTIES.put("spring.jpa.properties.hibernate.query.in_clause_parameter_padding", "true");
+        APPLICATION_PROPERTIES.put("decorator.datasource.enabled", "true");
+        APPLICATION_PROPERTIES.put("decorator.datasource.p6spy.enable-logging", "false");
+        APPLICATION_PROPERTIES.put("sql-sampling.enabled", "true");
+        APPLICATION_PROPERTIES.put("logging.level.org.hibernate.SQL", "warn");
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QueryDslApplication.class)
+            .profiles("loadtest")
+            .properties(APPLICATION_PROPERTIES.entrySet().stream()
+                .map(property -> property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new))
+            .run(args);
+
+        try {
+            seed(context, config);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            BackgroundBulk background = config.isBackgroundBulk()
+                ? new BackgroundBulk(context.getBean(MemberBatchRunner.class))
+                : null;
+            LoadTestReport report;
+            try {
+                report = run(config, new RequestMix(baseUrl, config.getMembers(),
+                    config.getTeams(), config.getTimeout()), settings(config));
+            } finally {
+                if (background != null) {
+                    background.stop();
+                }
+            }
+            // 배경 배치가 한 번도 끝나지 못했으면 "bulk 중 latency" 결과가 아니므로 기록하지 않는다.
+            if (background != null) {
+                background.verify();
+            }
+
+            report.print(System.out);
+            report.write(config.getReport());
+            report.printDiff(config.getBaseline(), System.out);
+            if (config.isWriteBaseline()) {
+                report.write(config.getBaseline());
+                System.out.println("Baseline written to " + config.getBaseline());
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static LoadTestReport run(LoadTestConfig config, RequestMix mix, Map<String, String> settings)
+        throws InterruptedException {
+        ExecutorService httpExecutor = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder()
+            .executor(httpExecutor)
+            .connectTimeout(config.getTimeout())
+            .build();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(config.getRates().size());
+
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFromNanos = startNanos + config.getWarmup().toNanos();
+        long endNanos = measureFromNanos + config.getDuration().toNanos();
+
+        Phaser inFlight = new Phaser(1);
+        Map<String, EndpointRecorder> recorders = new LinkedHashMap<>();
+
+        config.getRates().forEach((endpoint, rate) -> {
+            EndpointRecorder recorder = new EndpointRecorder();
+            recorders.put(endpoint, recorder);
+
+            long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            AtomicLong ticks = new AtomicLong();
+            scheduler.scheduleAtFixedRate(() -> {
+                long intendedNanos = startNanos + ticks.getAndIncrement() * periodNanos;
+                if (intendedNanos >= endNanos) {
+                    return;
+                }
+                boolean measured = intendedNanos >= measureFromNanos;
+                HttpRequest request = mix.next(endpoint);
+
+                inFlight.register();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latencyNanos = System.nanoTime() - intendedNanos;
+                        if (measured) {
+                            if (error == null && response.statusCode() < 400) {
+                                recorder.success(latencyNanos);
+                            } else {
+                                recorder.failure(latencyNanos);
+                            }
+                        }
+                        inFlight.arriveAndDeregister();
+                    });
+            }, startNanos - System.nanoTime(), periodNanos, TimeUnit.NANOSECONDS);
+        });
+
+        log.info("Load test: warmup={}, duration={}, rates={}", config.getWarmup(),
+            config.getDuration(), config.getRates());
+        TimeUnit.NANOSECONDS.sleep(endNanos - System.nanoTime());
+        scheduler.shutdownNow();
+
+        // 아직 응답을 기다리는 요청은 timeout 까지 기다린다.
+        try {
+            inFlight.awaitAdvanceInterruptibly(inFlight.arrive(),
+                config.getTimeout().toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("{} requests still in flight", inFlight.getUnarrivedParties());
+        }
+        httpExecutor.shutdownNow();
+
+        double seconds = config.getDuration().toMillis() / 1000.0;
+        Map<String, EndpointResult> results = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> results.put(endpoint, recorder.toResult(seconds)));
+        return new LoadTestReport(settings, results);
+    }
+
+    private static Map<String, String> settings(LoadTestConfig config) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("members", String.valueOf(config.getMembers()));
+        settings.put("teams", String.valueOf(config.getTeams()));
+        settings.put("warmup", config.getWarmup().toString());
+        settings.put("duration", config.getDuration().toString());
+        settings.put("rates", config.getRates().toString());
+        settings.put("seed", String.valueOf(config.getSeed()));
+        settings.put("background-bulk", String.valueOf(config.isBackgroundBulk()));
+        settings.put("java.version", System.getProperty("java.version"));
+        settings.put("available-processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        APPLICATION_PROPERTIES.forEach((key, value) -> {
+            if (key.startsWith("decorator.") || key.startsWith("sql-sampling.")) {
+                settings.put(key, value);
+            }
+        });
+        return settings;
+    }
+
+    /**
+     * 값은 바꾸지 않지만 모든 row 를 읽고 UPDATE 하는 배치를 끝날 때까지 반복한다.
+     * 실패(bulk permit 대기 초과 등)해도 스레드가 죽지 않고 기록한 뒤 다시 시작한다.
+     */
+    private static class BackgroundBulk {
+        private static final String JOB = "loadtest-background";
+
+        private final MemberBatchRunner batchRunner;
+
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private final AtomicLong completed = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final Thread thread;
+
+        BackgroundBulk(MemberBatchRunner batchRunner) {
+            this.batchRunner = batchRunner;
+            this.thread = new Thread(this::loop, "loadtest-background-bulk");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void loop() {
+            MemberSearchCondition all = MemberSearchCondition.builder().build();
+            while (!stopped.get()) {
+                try {
+                    batchRunner.reset(JOB);
+                    batchRunner.run(JOB, all, MemberChunkProcessor.update(update -> update.set(member.age, member.age)));
+                    completed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.warn("Background bulk run failed, restarting", e);
+                }
+            }
+        }
+
+        void stop() throws InterruptedException {
+            stopped.set(true);
+            thread.join();
+        }
+
+        void verify() {
+            System.out.printf("[loadtest] background bulk: %d completed, %d failed%n", completed.get(), failed.get());
+            if (completed.get() == 0 && failed.get() > 0) {
+                throw new IllegalStateException("Background bulk never completed (" + failed.get() + " failures)");
+            }
+        }
+    }
+
+    // JPA 를 거치지 않고 JDBC batch 로 넣으므로 normalized_name 과 trigram 색인도 직접 채운다.
+    private static void seed(ConfigurableApplicationContext context, LoadTestConfig config) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(config.getSeed());
+
+        List<Object[]> teams = new ArrayList<>();
+        for (int i = 0; i < config.getTeams(); i++) {
+            String name = "team" + i;
+            teams.add(new Object[]{(long) i + 1, name, Names.normalize(name)});
+        }
+        jdbcTemplate.batchUpdate("insert into TEAM (id, name, normalized_name) values (?, ?, ?)", teams);
+
+        List<Object[]> members = new ArrayList<>();
+        List<Object[]> trigrams = new ArrayList<>();
+        for (int i = 0; i < config.getMembers(); i++) {
+            long id = i + 1;
+            String name = "member" + i;
+            members.add(new Object[]{id, name, Names.normalize(name), random.nextInt(100),
+                (long) (i % config.getTeams()) + 1});
+            for (String trigram : MemberNameTrigram.trigrams(name)) {
+                trigrams.add(new Object[]{trigram, id});
+            }
+
+            if (members.size() == 10_000) {
+                insertMembers(jdbcTemplate, members, trigrams);
+            }
+        }
+        insertMembers(jdbcTemplate, members, trigrams);
+
+        context.getBean(TeamStatisticsReconciler.class).reconcile();
+        log.info("Seeded {} teams, {} members", config.getTeams(), config.getMembers());
+    }
+
+    private static void insertMembers(JdbcTemplate jdbcTemplate, List<Object[]> members,
+        List<Object[]> trigrams) {
+        jdbcTemplate.batchUpdate(
+            "insert into MEMBER (id, name, normalized_name, age, team_id) values (?, ?, ?, ?, ?)",
+            members);
+        jdbcTemplate.batchUpdate(
+            "insert into MEMBER_NAME_TRIGRAM (trigram, member_id) values (?, ?)", trigrams);
+        members.clear();
+        trigrams.clear();
+    }
+}
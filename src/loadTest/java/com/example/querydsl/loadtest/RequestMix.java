@@ -0,0 +1,87 @@
+package com.example.querydsl.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * endpoint 별로 MemberSearchCondition / Pageable 조합을 무작위로 만들어 요청을 생성한다.
+ * 시드 데이터는 LoadTestRunner 가 만든 규칙(team0..teamN, member0..memberN, age 0..99)을 따른다.
+ */
+public class RequestMix {
+    private static final int BATCH_SIZE = 50;
+
+    private final String baseUrl;
+    private final int members;
+    private final int teams;
+    private final Duration timeout;
+
+    public RequestMix(String baseUrl, int members, int teams, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.members = members;
+        this.teams = teams;
+        this.timeout = timeout;
+    }
+
+    public HttpRequest next(String endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (endpoint) {
+            case "v1":
+                // 페이징이 없으므로 결과가 팀 하나로 제한되도록 teamName 은 항상 넣는다.
+                return get("/v1/members", condition(random, true));
+            case "v2":
+            case "v3":
+                return get("/" + endpoint + "/members", condition(random, false) + page(random));
+            case "v4":
+                return get("/v4/members", condition(random, false) + page(random)
+                    + (random.nextBoolean() ? "&sort=age,desc" : "&sort=name,asc"));
+            case "v5":
+                return get("/v5/members", page(random).substring(1));
+            case "batch":
+                return batch(random);
+            default:
+                throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        }
+    }
+
+    private String condition(ThreadLocalRandom random, boolean requireTeam) {
+        StringJoiner query = new StringJoiner("&");
+        if (requireTeam || random.nextInt(3) == 0) {
+            query.add("teamName=team" + random.nextInt(teams));
+        }
+        if (random.nextBoolean()) {
+            int ageGoe = random.nextInt(90);
+            query.add("ageGoe=" + ageGoe);
+            query.add("ageLoe=" + (ageGoe + 10));
+        }
+        if (random.nextInt(4) == 0) {
+            query.add("memberNamePrefix=member" + (1 + random.nextInt(9)));
+        }
+        return query.toString();
+    }
+
+    private String page(ThreadLocalRandom random) {
+        return "&page=" + random.nextInt(10) + "&size=20";
+    }
+
+    private HttpRequest get(String path, String query) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path + "?" + query))
+            .timeout(timeout)
+            .GET()
+            .build();
+    }
+
+    private HttpRequest batch(ThreadLocalRandom random) {
+        StringJoiner ids = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(String.valueOf(1 + random.nextInt(members)));
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/members/batch"))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(ids.toString()))
+            .build();
+    }
+}
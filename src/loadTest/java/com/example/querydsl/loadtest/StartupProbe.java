@@ -0,0 +1,196 @@
+package com.example.querydsl.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 애플리케이션을 별도 JVM 으로 여러 번 띄워 시작 모드별로 다음을 잰다.
+ *
+ * <ul>
+ *     <li>time-to-ready: 프로세스 시작부터 /actuator/health/readiness 가 200 을 줄 때까지</li>
+ *     <li>first request: ready 직후 첫 /v2/members 요청의 latency, 그리고 두 번째 요청의 latency</li>
+ * </ul>
+ *
+ * <pre>
+ * ./gradlew startupProbe
+ * ./gradlew startupProbe -Dstartup.runs=5
+ * </pre>
+ *
+ * 모드별 중앙값은 loadtest/startup.json (startup.report) 에 쓰고 변경과 함께 커밋한다.
+ * 자식 프로세스의 로그는 build/startup 에 남는다.
+ */
+@Slf4j
+public class StartupProbe {
+    private static final String MAIN_CLASS = "com.example.querydsl.QueryDslApplication";
+
+    private static final String FIRST_REQUEST = "/v2/members?teamName=teamA&page=1&size=20";
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("startup.java", "java");
+        String classpath = required("startup.classpath");
+        String archive = System.getProperty("startup.cds-archive", "build/cds/app.jsa");
+        int runs = Integer.getInteger("startup.runs", 3);
+        Path report = Paths.get(System.getProperty("startup.report", "loadtest/startup.json"));
+
+        // 지금 기본 모드와 fast-startup 모드, 그리고 fast-startup + AppCDS
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("default", List.of());
+        modes.put("fast-startup", List.of("--spring.profiles.active=fast-startup"));
+        modes.put("fast-startup+cds", List.of("-Xshare:auto", "-XX:SharedArchiveFile=" + archive,
+            "--spring.profiles.active=fast-startup"));
+
+        Path logDir = Paths.get("build/startup");
+        Files.createDirectories(logDir);
+
+        StartupProbe probe = new StartupProbe();
+        Map<String, List<Sample>> results = new LinkedHashMap<>();
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                Sample sample = probe.measure(java, classpath, mode.getValue(),
+                    logDir.resolve(mode.getKey() + "-" + run + ".log"));
+                log.info("{} run {}: {}", mode.getKey(), run, sample);
+                results.computeIfAbsent(mode.getKey(), key -> new ArrayList<>()).add(sample);
+            }
+        }
+
+        Map<String, Sample> medians = new LinkedHashMap<>();
+        results.forEach((mode, samples) -> medians.put(mode, new Sample(
+            median(samples.stream().mapToLong(Sample::getReadyMillis).toArray()),
+            median(samples.stream().mapToLong(Sample::getFirstRequestMicros).toArray()),
+            median(samples.stream().mapToLong(Sample::getSecondRequestMicros).toArray()))));
+
+        System.out.printf("%-18s %16s %16s %16s%n", "mode (median)", "time-to-ready ms", "first req ms",
+            "second req ms");
+        medians.forEach((mode, sample) -> System.out.printf("%-18s %16d %16.1f %16.1f%n", mode,
+            sample.getReadyMillis(), sample.getFirstRequestMicros() / 1000.0,
+            sample.getSecondRequestMicros() / 1000.0));
+
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("runs", runs);
+        json.put("medians", medians);
+        MAPPER.writeValue(report.toFile(), json);
+        System.out.println("Startup report written to " + report);
+    }
+
+    // "-" 로 시작하는 인자는 JVM 옵션, "--" 로 시작하는 인자는 애플리케이션 인자
+    private Sample measure(String java, String classpath, List<String> options, Path logFile)
+        throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        options.stream().filter(option -> !option.startsWith("--")).forEach(command::add);
+        command.addAll(Arrays.asList("-cp", classpath, MAIN_CLASS, "--server.port=" + port,
+            "--management.endpoint.health.probes.enabled=true"));
+        options.stream().filter(option -> option.startsWith("--")).forEach(command::add);
+
+        String baseUrl = "http://localhost:" + port;
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile.toFile())
+            .start();
+        try {
+            awaitReady(baseUrl, process, start);
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long firstRequestMicros = timeRequest(baseUrl + FIRST_REQUEST);
+            long secondRequestMicros = timeRequest(baseUrl + FIRST_REQUEST);
+            return new Sample(readyMillis, firstRequestMicros, secondRequestMicros);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitReady(String baseUrl, Process process, long start) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+        while (System.nanoTime() - start < READY_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // 아직 포트를 열지 않았다.
+            } catch (IOException e) {
+                log.debug("Readiness probe failed", e);
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        throw new IllegalStateException("Application did not become ready within " + READY_TIMEOUT);
+    }
+
+    private long timeRequest(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(url + " returned " + response.statusCode());
+        }
+        return micros;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing system property " + name);
+        }
+        return value;
+    }
+
+    @Value
+    static class Sample {
+        long readyMillis;
+        long firstRequestMicros;
+        long secondRequestMicros;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.querydsl;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * AppCDS 클래스 목록을 만드는 training run. (./gradlew cdsClassList)
+ * 애플리케이션을 띄우고 warm-up (MemberQueryWarmUp) 이 끝나면 정상 종료해 JVM 이 로딩된 클래스 목록을 쓰게 한다.
+ *
+ * <p>SpringApplication.run 은 ApplicationRunner 가 모두 끝난 뒤 반환하므로 여기서 종료한다.
+ * 빈 안에서 System.exit 를 부르면 종료 hook 이 context 를 닫는 동안 그 빈이 아직 실행 중이다.
+ */
+public class CdsTrainingRun {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = SpringApplication.run(QueryDslApplication.class, args);
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -2,6 +2,8 @@ package com.example.querydsl;
 
 import com.example.querydsl.domain.Member;
 import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -9,10 +11,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootApplication
+@EnableScheduling
 public class QueryDslApplication {
 
 	public static void main(String[] args) {
@@ -37,6 +41,7 @@ public class QueryDslApplication {
 		private final EntityManager em;
 
 		@Transactional
+		@Workload(WorkloadClass.BULK)
 		public void init() {
 			Team teamA = new Team("teamA");
 			Team teamB = new Team("teamB");
@@ -0,0 +1,28 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.invalidation.InvalidationListener;
+import com.example.querydsl.repository.invalidation.OutboxInvalidationBus;
+import com.example.querydsl.repository.sharding.MemberShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 여러 노드로 띄울 때 노드마다 가진 캐시(팀 통계, 미리 읽은 페이지)를 다른 노드의 변경에 맞춰 지운다.
+ */
+@Configuration
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "invalidation", name = "bus", havingValue = "outbox")
+    public OutboxInvalidationBus outboxInvalidationBus(JdbcTemplate jdbcTemplate, MemberShards memberShards,
+        ObjectProvider<InvalidationListener> listeners, InvalidationProperties properties,
+        MeterRegistry meterRegistry) {
+        return new OutboxInvalidationBus(jdbcTemplate, memberShards, listeners, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.querydsl.config;
+
+import java.time.Duration;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 노드 간 캐시 무효화 설정. bus: outbox 면 OutboxInvalidationBus 를 쓴다.
+ * 다른 InvalidationBus 빈을 등록하면 그것을 쓴다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "invalidation")
+public class InvalidationProperties {
+    private String bus;
+
+    // 설정하지 않으면 기동할 때마다 새로 만든다.
+    private String nodeId = UUID.randomUUID().toString();
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    // poll 한 번에 shard 마다 읽는 최대 행 수
+    private int batchSize = 500;
+
+    // id 가 비어 있으면 아직 commit 되지 않은 트랜잭션일 수 있어 기다린다. 이 시간이 지나면 rollback 된 것으로 보고 넘어간다.
+    private Duration gapTimeout = Duration.ofSeconds(5);
+
+    // 이보다 오래된 outbox 행은 지운다.
+    private Duration retention = Duration.ofMinutes(10);
+}
@@ -0,0 +1,26 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.jfr.JfrJdbcEventListener;
+import com.example.querydsl.repository.jfr.QueryPhasesAnnotationPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * repository 조회 단계별 JFR 이벤트 중 JDBC 단계를 p6spy 리스너로 기록한다. (SqlSamplingConfig 와 같은 방식)
+ * 기록 설정은 jfr/querydsl.jfc 참고.
+ */
+@Configuration
+public class JfrConfig {
+
+    @Bean
+    public static QueryPhasesAnnotationPostProcessor queryPhasesAnnotationPostProcessor() {
+        return new QueryPhasesAnnotationPostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jfr-events", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public JfrJdbcEventListener jfrJdbcEventListener() {
+        return new JfrJdbcEventListener();
+    }
+}
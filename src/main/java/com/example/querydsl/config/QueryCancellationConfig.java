@@ -0,0 +1,101 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.support.QueryCancellation;
+import com.example.querydsl.repository.support.QueryTimeouts;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Callable;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Callable 을 반환하는 endpoint 에서 클라이언트 연결이 끊기거나 async 요청이 timeout 되면
+ * 실행 중인 JDBC Statement 를 cancel 해서 커넥션을 풀에 빨리 돌려준다.
+ *
+ * <p>연결 끊김은 컨테이너가 async 요청의 오류(AsyncListener.onError)로 알려줄 때 감지된다.
+ * 감지되지 않더라도 spring.mvc.async.request-timeout 이 지나면 같은 방식으로 취소된다.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(QueryTimeoutProperties.class)
+public class QueryCancellationConfig implements WebMvcConfigurer {
+    private final MeterRegistry meterRegistry;
+
+    // InstrumentedQueryFactory 를 거치지 않는 JPA 쿼리(Spring Data, em.createQuery)의 timeout.
+    @Bean
+    public HibernatePropertiesCustomizer queryTimeoutHibernatePropertiesCustomizer(QueryTimeouts queryTimeouts) {
+        return properties -> properties.put(QueryTimeouts.HINT, queryTimeouts.defaultTimeoutMillis());
+    }
+
+    // decorator.datasource.enabled 와 상관없이 DataSource 빈을 직접 감싼다.
+    // p6spy 의 post processor 보다 먼저 실행되므로 p6spy 가 켜져 있으면 그 안쪽에 들어간다.
+    @Bean
+    public static BeanPostProcessor queryCancellationDataSourcePostProcessor() {
+        return new QueryCancellationDataSourcePostProcessor();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                request.setAttribute(QueryCancellation.REQUEST_ATTRIBUTE, new QueryCancellation(),
+                    RequestAttributes.SCOPE_REQUEST);
+            }
+
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                cancellation(request).bind();
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object result) {
+                QueryCancellation.unbind();
+            }
+
+            @Override
+            public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+                cancel(request, "timeout");
+                return RESULT_NONE;
+            }
+
+            @Override
+            public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+                cancel(request, "disconnect");
+                return RESULT_NONE;
+            }
+        });
+    }
+
+    private void cancel(NativeWebRequest request, String reason) {
+        int cancelled = cancellation(request).cancel();
+        meterRegistry.counter("query.cancelled", "reason", reason).increment(cancelled);
+    }
+
+    private static QueryCancellation cancellation(NativeWebRequest request) {
+        return (QueryCancellation) request.getAttribute(QueryCancellation.REQUEST_ATTRIBUTE,
+            RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static class QueryCancellationDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource ? QueryCancellation.track((DataSource) bean) : bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
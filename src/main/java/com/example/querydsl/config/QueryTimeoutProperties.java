@@ -0,0 +1,31 @@
+package com.example.querydsl.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * repository 메서드별 쿼리 timeout. 키는 "클래스명.메서드명" 이다.
+ *
+ * <pre>
+ * query-timeout:
+ *   default-timeout: 30s
+ *   methods:
+ *     "[MemberJpaRepository.searchByCondition]": 5s
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "query-timeout")
+public class QueryTimeoutProperties {
+    private Duration defaultTimeout = Duration.ofSeconds(30);
+
+    private Map<String, Duration> methods = new HashMap<>();
+
+    public Duration timeoutOf(String method) {
+        return methods.getOrDefault(method, defaultTimeout);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.support.QueryTimeouts;
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLListenerContext;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SQLTemplatesRegistry;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JPA 와 같은 DataSource 를 쓰는 querydsl-sql 설정.
+ * SpringConnectionProvider 는 현재 트랜잭션의 커넥션을 사용하므로 @Transactional 안에서만 조회할 수 있다.
+ */
+@Configuration
+public class QuerydslSqlConfig {
+
+    @Bean
+    public com.querydsl.sql.Configuration querydslSqlConfiguration(DataSource dataSource,
+        QueryTimeouts queryTimeouts) throws SQLException {
+
+        SQLTemplates templates;
+        try (Connection connection = dataSource.getConnection()) {
+            templates = new SQLTemplatesRegistry().getTemplates(connection.getMetaData());
+        }
+
+        com.querydsl.sql.Configuration configuration = new com.querydsl.sql.Configuration(templates);
+        configuration.setExceptionTranslator(new SpringExceptionTranslator());
+        // JPA 쿼리의 javax.persistence.query.timeout 과 같은 timeout 을 Statement 에 건다.
+        configuration.addListener(new SQLBaseListener() {
+            @Override
+            public void prepared(SQLListenerContext context) {
+                try {
+                    context.getPreparedStatement().setQueryTimeout(queryTimeouts.timeoutSeconds());
+                } catch (SQLException e) {
+                    throw configuration.translate(e);
+                }
+            }
+        });
+        return configuration;
+    }
+
+    @Bean
+    public SQLQueryFactory sqlQueryFactory(DataSource dataSource,
+        com.querydsl.sql.Configuration querydslSqlConfiguration) {
+        return new SQLQueryFactory(querydslSqlConfiguration, new SpringConnectionProvider(dataSource));
+    }
+}
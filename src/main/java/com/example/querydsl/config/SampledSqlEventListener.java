@@ -0,0 +1,128 @@
+package com.example.querydsl.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * 실행된 SQL 을 샘플링(1/N 또는 slowThreshold 이상)해서 JSON 한 줄로 비동기 기록한다.
+ * 실행 스레드에서는 카운터 증가와 비교만 하고, 문자열/JSON 생성과 로깅은 writer 스레드가 한다.
+ * 큐가 가득 차면 버리고 sql.sampling.dropped 를 증가시킨다.
+ */
+@Slf4j(topic = "sql.sample")
+public class SampledSqlEventListener extends SimpleJdbcEventListener implements DisposableBean {
+    private static final int DRAIN_BATCH_SIZE = 256;
+
+    private final SqlSamplingProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<SqlSample> queue;
+
+    private final AtomicLong statements = new AtomicLong();
+
+    private final Counter sampled;
+
+    private final Counter dropped;
+
+    private final Thread writer;
+
+    public SampledSqlEventListener(SqlSamplingProperties properties, ObjectMapper objectMapper,
+        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.sampled = meterRegistry.counter("sql.sampling.sampled");
+        this.dropped = meterRegistry.counter("sql.sampling.dropped");
+
+        this.writer = new Thread(this::drain, "sql-sample-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos,
+        SQLException e) {
+
+        long sequence = statements.incrementAndGet();
+        boolean slow = timeElapsedNanos >= properties.getSlowThreshold().toNanos();
+
+        if (!slow && e == null && sequence % Math.max(1, properties.getSampleRate()) != 0) {
+            return;
+        }
+
+        SqlSample sample = new SqlSample(
+            System.currentTimeMillis(),
+            e != null ? "error" : slow ? "slow" : "sampled",
+            TimeUnit.NANOSECONDS.toMicros(timeElapsedNanos),
+            statementInformation.getConnectionInformation().getConnectionId(),
+            properties.isIncludeValues()
+                ? statementInformation.getSqlWithValues()
+                : statementInformation.getSql(),
+            e == null ? null : e.getMessage());
+
+        if (queue.offer(sample)) {
+            sampled.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+    }
+
+    private void drain() {
+        List<SqlSample> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+                batch.forEach(this::write);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        List<SqlSample> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::write);
+    }
+
+    private void write(SqlSample sample) {
+        try {
+            log.info(objectMapper.writeValueAsString(sample));
+        } catch (JsonProcessingException e) {
+            log.warn("cannot serialize sql sample {}", sample, e);
+        }
+    }
+
+    @Value
+    static class SqlSample {
+        long timestamp;
+        String reason;
+        long elapsedMicros;
+        int connectionId;
+        String sql;
+        String error;
+    }
+}
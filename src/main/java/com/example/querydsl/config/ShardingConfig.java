@@ -0,0 +1,59 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.sharding.ShardRoutingDataSource;
+import com.example.querydsl.repository.sharding.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * sharding.enabled 면 spring.datasource 대신 shard 별 Hikari 풀을 {@link ShardRoutingDataSource} 로 묶어
+ * DataSource 로 쓴다. 쿼리 취소 proxy 와 p6spy decorator 는 이 DataSource 를 감싼다.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+    public DataSource dataSource(ShardingProperties properties) {
+        if (properties.getShards().size() < 2) {
+            throw new IllegalStateException("sharding.shards needs at least 2 entries");
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .build();
+            dataSource.setPoolName("shard-" + shards.size());
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(DataSource dataSource,
+        ShardingProperties properties) {
+        ShardSchemaInitializer initializer = new ShardSchemaInitializer(dataSource, properties.shardCount());
+        return hibernateProperties -> {
+            if (properties.isCreateSchema()) {
+                hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(initializer));
+            }
+        };
+    }
+}
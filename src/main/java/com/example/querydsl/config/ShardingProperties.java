@@ -0,0 +1,49 @@
+package com.example.querydsl.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * MEMBER/TEAM 을 team 기준으로 나눠 저장할 DataSource 목록. 순서가 shard 번호이므로 운영 중에 바꾸면 안 된다.
+ *
+ * <pre>
+ * sharding:
+ *   enabled: true
+ *   shards:
+ *     - url: jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1
+ *       username: sa
+ *     - url: jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1
+ *       username: sa
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+    private boolean enabled;
+
+    // shard 마다 스키마를 만들고 id 시작값/증가폭을 맞춘다. (로컬 H2 용, 운영 DB 는 migration 으로)
+    private boolean createSchema = true;
+
+    // scatter 조회를 실행하는 스레드 수
+    private int scatterThreads = 16;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public int shardCount() {
+        return enabled ? shards.size() : 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
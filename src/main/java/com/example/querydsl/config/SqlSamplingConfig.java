@@ -0,0 +1,24 @@
+package com.example.querydsl.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * p6spy-spring-boot-starter 는 JdbcEventListener 빈을 자동으로 등록한다.
+ * sql-sampling.enabled 일 때는 decorator.datasource.p6spy.enable-logging=false 로 기본 로거를 꺼야 중복 기록되지 않는다.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlSamplingProperties.class)
+public class SqlSamplingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sql-sampling", name = "enabled", havingValue = "true")
+    public SampledSqlEventListener sampledSqlEventListener(SqlSamplingProperties properties,
+        ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new SampledSqlEventListener(properties, objectMapper, meterRegistry);
+    }
+}
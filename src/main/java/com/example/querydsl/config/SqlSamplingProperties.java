@@ -0,0 +1,27 @@
+package com.example.querydsl.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * p6spy 로 가로챈 SQL 중 일부만 비동기로 남긴다.
+ * 완전히 끄려면 decorator.datasource.enabled=false 로 p6spy proxy 자체를 걷어낸다. (DataSource 를 그대로 사용)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql-sampling")
+public class SqlSamplingProperties {
+    private boolean enabled = false;
+
+    // N 개 중 1 개를 기록한다.
+    private int sampleRate = 100;
+
+    // 이 시간 이상 걸린 SQL 과 실패한 SQL 은 항상 기록한다.
+    private Duration slowThreshold = Duration.ofMillis(100);
+
+    private int queueCapacity = 10_000;
+
+    private boolean includeValues = false;
+}
@@ -0,0 +1,42 @@
+package com.example.querydsl.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * spring.main.lazy-initialization (fast-startup 프로필) 이 켜져 있어도 바로 만들어야 하는 빈.
+ *
+ * <ul>
+ *     <li>Hibernate 이벤트 리스너: @PostConstruct 에서 자기 자신을 등록하므로 늦게 만들면 그 전의 변경을 놓친다.</li>
+ *     <li>@Scheduled 메서드가 있는 빈: 만들어질 때 작업이 등록된다.</li>
+ * </ul>
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter hibernateEventListenerExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(PostInsertEventListener.class,
+            PostUpdateEventListener.class, PostDeleteEventListener.class);
+    }
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeanExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethod(beanType);
+    }
+
+    private static boolean hasScheduledMethod(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> found.set(true),
+            method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return found.get();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.workload.WorkloadAnnotationPostProcessor;
+import com.example.querydsl.repository.workload.WorkloadBulkheads;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(WorkloadProperties.class)
+public class WorkloadConfig {
+
+    @Bean
+    public static WorkloadAnnotationPostProcessor workloadAnnotationPostProcessor(
+        ObjectProvider<WorkloadBulkheads> bulkheads) {
+        return new WorkloadAnnotationPostProcessor(bulkheads);
+    }
+}
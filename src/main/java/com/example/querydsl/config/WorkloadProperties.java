@@ -0,0 +1,37 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.workload.WorkloadClass;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * workload 별 동시 실행 수. 합이 커넥션 풀 크기(Hikari 기본 10)를 넘지 않게 잡으면
+ * bulk 작업이 몰려도 interactive 요청이 쓸 커넥션이 남는다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "workload")
+public class WorkloadProperties {
+    private Limit interactive = new Limit(8, Duration.ofSeconds(1));
+
+    private Limit bulk = new Limit(2, Duration.ofSeconds(30));
+
+    public Limit limitOf(WorkloadClass workloadClass) {
+        return workloadClass == WorkloadClass.BULK ? bulk : interactive;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int maxConcurrent;
+
+        // permit 을 기다리는 최대 시간. 지나면 RejectedExecutionException
+        private Duration maxWait;
+    }
+}
@@ -1,37 +1,80 @@
 package com.example.querydsl.controller;
 
 import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.controller.dto.MemberTeamColumns;
 import com.example.querydsl.controller.dto.MemberTeamDto;
 import com.example.querydsl.domain.Member;
+import com.example.querydsl.repository.CoalescingMemberRepository;
 import com.example.querydsl.repository.MemberJpaRepository;
 import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.loader.EntityLoaders;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.sharding.UnsupportedShardQueryException;
+import com.querydsl.core.types.Predicate;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
+    private static final Set<String> PAGING_PARAMETERS = Set.of("page", "size", "sort");
+
+    private static final int MAX_SEARCH_CONDITIONS = 50;
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final CoalescingMemberRepository coalescingMemberRepository;
+    private final MemberShards memberShards;
+    private final EntityLoaders entityLoaders;
 
+    // 조건 없이 호출하면 오래 걸릴 수 있으므로 Callable 로 실행해 클라이언트가 끊으면 쿼리를 취소한다. (QueryCancellationConfig)
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMembersV1(MemberSearchCondition condition) {
-        return memberJpaRepository.searchByCondition(condition);
+    public Callable<List<MemberTeamDto>> searchMembersV1(MemberSearchCondition condition) {
+        return () -> memberJpaRepository.searchByCondition(condition);
+    }
+
+    // 대시보드처럼 v1 조회 여러 개를 한 번에 보낸다. 결과는 요청한 조건 순서대로 조건마다 v1 과 같은 목록이다.
+    @PostMapping("/v1/members/search")
+    public Callable<List<List<MemberTeamDto>>> searchMembersV1Batch(
+        @RequestBody List<MemberSearchCondition> conditions) {
+        if (conditions.size() > MAX_SEARCH_CONDITIONS || conditions.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Expected up to " + MAX_SEARCH_CONDITIONS + " non-null conditions");
+        }
+
+        return () -> memberJpaRepository.searchByConditions(conditions);
+    }
+
+    // v1 과 같은 JSON 이지만 서버에서는 컬럼 배열로 들고 있는다. (결과가 큰 조회용)
+    @GetMapping("/v1/members/columns")
+    public Callable<MemberTeamColumns> searchMembersV1Columns(MemberSearchCondition condition) {
+        return () -> memberJpaRepository.searchColumns(condition);
     }
 
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+        return coalescingMemberRepository.searchPageSimple(condition, pageable);
     }
 
     @GetMapping("/v3/members")
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+        return coalescingMemberRepository.searchPageComplex(condition, pageable);
     }
 
     @GetMapping("/v4/members")
@@ -40,11 +83,53 @@ public class MemberController {
         // 정렬 조건이 조금만 복잡해져도 Pageable의 Sort 기능을 사용하기 어렵다.
         // Root Entity 범위를 넘어가는 동적 정렬 기능이 필요하면 Pageable의 Sort를 사용하기 보다는
         // 파라미터를 직접 받아서 처리하는 것을 권장한다.
-         return memberRepository.searchByOrder(condition, pageable);
+         return coalescingMemberRepository.searchByOrder(condition, pageable);
     }
 
+    // 필터와 count 는 DB 에서 처리된다. 바인딩은 MemberRepository.customize 참고.
+    // 엔티티를 그대로 내보내지 않고 v1 과 같은 DTO 로 바꾼다. 팀은 EntityLoaders 로 페이지당 한 번의 IN 쿼리로 읽는다.
+    // 바인딩되지 않는 파라미터는 조용히 무시되어 전체 조회가 되므로 400 으로 거절한다.
+    // Spring Data 의 findAll(Predicate, Pageable) 은 shard 를 모르므로 샤딩 중에는 0 번 shard 만 보지 않도록 거절한다.
     @GetMapping("/v5/members")
-    public Page<Member> searchMembersByQuerydslPredicateExecutor(Pageable pageable) {
-        return memberRepository.findAll(pageable);
+    public Page<MemberTeamDto> searchMembersByQuerydslPredicateExecutor(
+        @QuerydslPredicate(root = Member.class, bindings = MemberRepository.class) Predicate predicate,
+        Pageable pageable, @RequestParam MultiValueMap<String, String> parameters) {
+        if (memberShards.isSharded()) {
+            throw new UnsupportedShardQueryException("/v5/members is not supported with sharding.enabled=true, "
+                + "use /v2/members, /v3/members or /v4/members");
+        }
+
+        List<String> unsupported = parameters.keySet().stream()
+            .filter(name -> !MemberRepository.PREDICATE_PARAMETERS.contains(name))
+            .filter(name -> !PAGING_PARAMETERS.contains(name))
+            .sorted()
+            .collect(Collectors.toList());
+        if (!unsupported.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Unsupported filters " + unsupported + ", allowed: " + MemberRepository.PREDICATE_PARAMETERS);
+        }
+
+        return toMemberTeamDtos(memberRepository.findAll(predicate, pageable));
+    }
+
+    @PostMapping("/members/batch")
+    public List<MemberTeamDto> findMembersByIds(@RequestBody List<Long> ids) {
+        return memberJpaRepository.findAllById(ids);
+    }
+
+    // member.getTeam().getName() 은 member 마다 팀을 초기화하므로 팀 id 만 모았다가 한 번에 읽는다.
+    private Page<MemberTeamDto> toMemberTeamDtos(Page<Member> members) {
+        List<CompletableFuture<MemberTeamDto>> dtos = members.getContent().stream()
+            .map(member -> entityLoaders.teamOf(member).thenApply(team -> new MemberTeamDto(
+                member.getId(),
+                member.getName(),
+                member.getAge(),
+                team == null ? null : team.getId(),
+                team == null ? null : team.getName())))
+            .collect(Collectors.toList());
+        entityLoaders.dispatchAll();
+
+        return new PageImpl<>(dtos.stream().map(CompletableFuture::join).collect(Collectors.toList()),
+            members.getPageable(), members.getTotalElements());
     }
 }
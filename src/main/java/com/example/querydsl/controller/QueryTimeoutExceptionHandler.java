@@ -0,0 +1,57 @@
+package com.example.querydsl.controller;
+
+import com.example.querydsl.repository.support.QueryCancellation;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.RejectedExecutionException;
+import javax.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 쿼리 timeout 은 과부하 신호이므로 500 대신 503 + Retry-After 로 응답하고 endpoint 별로 센다.
+ * workload bulkhead / write-behind 버퍼가 가득 차서 거절된 요청도 같은 503 으로 응답한다.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class QueryTimeoutExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Void> queryTimeout(HttpServletRequest request) {
+        // 클라이언트가 떠나서 취소된 쿼리는 query.cancelled 로 이미 집계되었다.
+        QueryCancellation cancellation =
+            (QueryCancellation) request.getAttribute(QueryCancellation.REQUEST_ATTRIBUTE);
+        if (cancellation == null || !cancellation.isCancelled()) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            meterRegistry.counter("query.timeout", "uri", pattern == null ? "unknown" : pattern.toString())
+                .increment();
+        }
+
+        return serviceUnavailable();
+    }
+
+    // spring.mvc.async.request-timeout 이 지난 Callable 요청. 실행 중이던 쿼리는 query.cancelled 로 집계된다.
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<Void> asyncRequestTimeout() {
+        return serviceUnavailable();
+    }
+
+    // 거절 수는 workload.rejected 로 집계된다.
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> rejected() {
+        return serviceUnavailable();
+    }
+
+    private static ResponseEntity<Void> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .build();
+    }
+}
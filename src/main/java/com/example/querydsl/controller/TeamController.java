@@ -0,0 +1,20 @@
+package com.example.querydsl.controller;
+
+import com.example.querydsl.controller.dto.TeamStatisticsDto;
+import com.example.querydsl.repository.statistics.TeamStatisticsStore;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamStatisticsStore teamStatisticsStore;
+
+    @GetMapping("/teams/statistics")
+    public List<TeamStatisticsDto> teamStatistics() {
+        return teamStatisticsStore.findAll();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.querydsl.controller.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberRankDto {
+    private final Long memberId;
+    private final String memberName;
+    private final Integer age;
+    private final Long teamId;
+    private final String teamName;
+    private final Long rank;
+
+    public MemberRankDto(Long memberId, String memberName, Integer age, Long teamId,
+        String teamName, Long rank) {
+        this.memberId = memberId;
+        this.memberName = memberName;
+        this.age = age;
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.rank = rank;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.querydsl.controller.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberRunningTotalDto {
+    private final Long memberId;
+    private final String memberName;
+    private final Integer age;
+    private final Long teamId;
+    private final Long runningAgeSum;
+
+    public MemberRunningTotalDto(Long memberId, String memberName, Integer age, Long teamId,
+        Long runningAgeSum) {
+        this.memberId = memberId;
+        this.memberName = memberName;
+        this.age = age;
+        this.teamId = teamId;
+        this.runningAgeSum = runningAgeSum;
+    }
+}
@@ -1,27 +1,77 @@
 package com.example.querydsl.controller.dto;
 
 import static com.example.querydsl.domain.QMember.member;
+import static com.example.querydsl.domain.QMemberNameTrigram.memberNameTrigram;
 import static com.example.querydsl.domain.QTeam.team;
 
+import com.example.querydsl.domain.MemberNameTrigram;
+import com.example.querydsl.domain.Names;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
+// GET 은 파라미터 바인딩, POST /v1/members/search 는 JSON 본문(@Jacksonized 빌더)으로 받는다.
 @Data
 @Builder
+@Jacksonized
 public class MemberSearchCondition {
     private final String memberName;
+    private final String memberNameLike;
+    private final String memberNamePrefix;
     private final String teamName;
     private final Integer ageGoe;
     private final Integer ageLoe;
+    private final Boolean ignoreCase;
 
     public BooleanExpression[] allCondition() {
-        return Arrays.asList(memberNameEq(), teamNameEq(), ageGoe(), ageLoe())
+        return Arrays.asList(memberNameEq(), memberNameLike(), memberNamePrefix(), teamNameEq(),
+                ageGoe(), ageLoe())
             .toArray(new BooleanExpression[0]);
     }
 
+    // 값은 빼고 어떤 조건이 쓰였는지만 나열한다. (같은 모양의 조회끼리 묶는 용도)
+    public String shape() {
+        StringJoiner shape = new StringJoiner(",");
+        if (memberName != null) {
+            shape.add("memberName");
+        }
+        if (memberNameLike != null) {
+            shape.add("memberNameLike");
+        }
+        if (memberNamePrefix != null) {
+            shape.add("memberNamePrefix");
+        }
+        if (teamName != null) {
+            shape.add("teamName");
+        }
+        if (ageGoe != null) {
+            shape.add("ageGoe");
+        }
+        if (ageLoe != null) {
+            shape.add("ageLoe");
+        }
+        if (ignoringCase()) {
+            shape.add("ignoreCase");
+        }
+        return shape.toString();
+    }
+
+    // allCondition() 과 같은 조건을 조회한 row 에 적용한다. (NULL 컬럼은 SQL 처럼 맞지 않는 것으로 본다.)
+    public boolean matches(MemberTeamDto row) {
+        return (memberName == null || nameEquals(memberName, row.getMemberName()))
+            && (memberNameLike == null || nameContains(memberNameLike, row.getMemberName()))
+            && (memberNamePrefix == null || nameStartsWith(memberNamePrefix, row.getMemberName()))
+            && (teamName == null || nameEquals(teamName, row.getTeamName()))
+            && (ageGoe == null || row.getAge() != null && row.getAge() >= ageGoe)
+            && (ageLoe == null || row.getAge() != null && row.getAge() <= ageLoe);
+    }
+
     public BooleanExpression ageLoe() {
         return Optional.ofNullable(getAgeLoe()).map(member.age::loe).orElse(null);
     }
@@ -30,11 +80,76 @@ public class MemberSearchCondition {
         return Optional.ofNullable(getAgeGoe()).map(member.age::goe).orElse(null);
     }
 
+    // ignoreCase 인 경우 lower() 대신 색인된 normalized_name 컬럼과 비교한다.
     public BooleanExpression teamNameEq() {
-        return Optional.ofNullable(getTeamName()).map(team.name::eq).orElse(null);
+        return Optional.ofNullable(getTeamName())
+            .map(name -> ignoringCase()
+                ? team.normalizedName.eq(Names.normalize(name))
+                : team.name.eq(name))
+            .orElse(null);
     }
 
     public BooleanExpression memberNameEq() {
-        return Optional.ofNullable(getMemberName()).map(member.name::eq).orElse(null);
+        return Optional.ofNullable(getMemberName())
+            .map(name -> ignoringCase()
+                ? member.normalizedName.eq(Names.normalize(name))
+                : member.name.eq(name))
+            .orElse(null);
+    }
+
+    // LIKE 'prefix%' 는 IDX_MEMBER_NAME (ignoreCase 면 IDX_MEMBER_NORMALIZED_NAME) 을
+    // range scan 으로 사용한다.
+    public BooleanExpression memberNamePrefix() {
+        return Optional.ofNullable(getMemberNamePrefix())
+            .map(prefix -> ignoringCase()
+                ? member.normalizedName.startsWith(Names.normalize(prefix))
+                : member.name.startsWith(prefix))
+            .orElse(null);
+    }
+
+    public BooleanExpression memberNameLike() {
+        return Optional.ofNullable(getMemberNameLike()).map(this::nameContains).orElse(null);
+    }
+
+    private boolean ignoringCase() {
+        return Boolean.TRUE.equals(ignoreCase);
+    }
+
+    private boolean nameEquals(String name, String column) {
+        return column != null && normalizeIfIgnoringCase(column).equals(normalizeIfIgnoringCase(name));
+    }
+
+    private boolean nameContains(String keyword, String column) {
+        return column != null && normalizeIfIgnoringCase(column).contains(normalizeIfIgnoringCase(keyword));
+    }
+
+    private boolean nameStartsWith(String prefix, String column) {
+        return column != null && normalizeIfIgnoringCase(column).startsWith(normalizeIfIgnoringCase(prefix));
+    }
+
+    private String normalizeIfIgnoringCase(String name) {
+        return ignoringCase() ? Names.normalize(name) : name;
+    }
+
+    // trigram 색인으로 모든 trigram 을 가진 후보만 추린 뒤 contains 로 다시 확인한다.
+    // 3글자 미만은 trigram 을 만들 수 없으므로 contains 로만 검색한다.
+    private BooleanExpression nameContains(String keyword) {
+        BooleanExpression contains = ignoringCase()
+            ? member.normalizedName.contains(Names.normalize(keyword))
+            : member.name.contains(keyword);
+
+        Set<String> trigrams = MemberNameTrigram.trigrams(keyword);
+        if (trigrams.isEmpty()) {
+            return contains;
+        }
+
+        return member.id.in(
+                JPAExpressions
+                    .select(memberNameTrigram.memberId)
+                    .from(memberNameTrigram)
+                    .where(memberNameTrigram.trigram.in(trigrams))
+                    .groupBy(memberNameTrigram.memberId)
+                    .having(memberNameTrigram.trigram.count().eq((long) trigrams.size())))
+            .and(contains);
     }
 }
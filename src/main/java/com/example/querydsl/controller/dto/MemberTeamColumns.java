@@ -0,0 +1,177 @@
+package com.example.querydsl.controller.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code List<MemberTeamDto>} 를 row 객체 대신 컬럼별 배열로 담는다.
+ * id/age 는 primitive 배열에, 팀은 사전(dictionary) 인코딩해 row 마다 int 코드만 저장한다.
+ * JSON 은 {@code List<MemberTeamDto>} 와 같은 모양으로 직렬화된다.
+ */
+@JsonSerialize(using = MemberTeamColumnsSerializer.class)
+public final class MemberTeamColumns {
+    private static final int NO_TEAM = -1;
+
+    private final int size;
+    private final long[] memberIds;
+    private final String[] memberNames;
+    private final int[] ages;
+    private final BitSet nullAges;
+    // row -> 팀 코드, 코드 -> 팀 id/이름
+    private final int[] teamCodes;
+    private final long[] teamIds;
+    private final String[] teamNames;
+
+    private MemberTeamColumns(Builder builder) {
+        this.size = builder.size;
+        this.memberIds = Arrays.copyOf(builder.memberIds, size);
+        this.memberNames = Arrays.copyOf(builder.memberNames, size);
+        this.ages = Arrays.copyOf(builder.ages, size);
+        this.nullAges = (BitSet) builder.nullAges.clone();
+        this.teamCodes = Arrays.copyOf(builder.teamCodes, size);
+        this.teamIds = Arrays.copyOf(builder.teamIds, builder.teamCount);
+        this.teamNames = Arrays.copyOf(builder.teamNames, builder.teamCount);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memberId(int row) {
+        return memberIds[row];
+    }
+
+    public String memberName(int row) {
+        return memberNames[row];
+    }
+
+    public boolean hasAge(int row) {
+        return !nullAges.get(row);
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public boolean hasTeam(int row) {
+        return teamCodes[row] != NO_TEAM;
+    }
+
+    public long teamId(int row) {
+        return teamIds[teamCodes[row]];
+    }
+
+    public String teamName(int row) {
+        return teamNames[teamCodes[row]];
+    }
+
+    public MemberTeamDto get(int row) {
+        return new MemberTeamDto(
+            memberId(row),
+            memberName(row),
+            hasAge(row) ? age(row) : null,
+            hasTeam(row) ? teamId(row) : null,
+            hasTeam(row) ? teamName(row) : null);
+    }
+
+    // row 를 꺼낼 때마다 MemberTeamDto 를 만드는 읽기 전용 view
+    public List<MemberTeamDto> asList() {
+        return new AbstractList<MemberTeamDto>() {
+            @Override
+            public MemberTeamDto get(int index) {
+                return MemberTeamColumns.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private int size;
+        private long[] memberIds = new long[INITIAL_CAPACITY];
+        private String[] memberNames = new String[INITIAL_CAPACITY];
+        private int[] ages = new int[INITIAL_CAPACITY];
+        private final BitSet nullAges = new BitSet();
+        private int[] teamCodes = new int[INITIAL_CAPACITY];
+
+        private int teamCount;
+        private long[] teamIds = new long[8];
+        private String[] teamNames = new String[8];
+        private final Map<Long, Integer> teamCodeById = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(long memberId, String memberName, Integer age, Long teamId,
+            String teamName) {
+            if (size == memberIds.length) {
+                grow();
+            }
+
+            memberIds[size] = memberId;
+            memberNames[size] = memberName;
+            if (age == null) {
+                nullAges.set(size);
+            } else {
+                ages[size] = age;
+            }
+            teamCodes[size] = teamId == null ? NO_TEAM : teamCode(teamId, teamName);
+            size++;
+            return this;
+        }
+
+        // 다른 결과(shard 별 결과 등)의 row 를 그대로 뒤에 붙인다.
+        public Builder addAll(MemberTeamColumns columns) {
+            for (int row = 0; row < columns.size(); row++) {
+                add(columns.memberId(row),
+                    columns.memberName(row),
+                    columns.hasAge(row) ? columns.age(row) : null,
+                    columns.hasTeam(row) ? columns.teamId(row) : null,
+                    columns.hasTeam(row) ? columns.teamName(row) : null);
+            }
+            return this;
+        }
+
+        public MemberTeamColumns build() {
+            return new MemberTeamColumns(this);
+        }
+
+        private int teamCode(long teamId, String teamName) {
+            Integer code = teamCodeById.get(teamId);
+            if (code != null) {
+                return code;
+            }
+
+            if (teamCount == teamIds.length) {
+                teamIds = Arrays.copyOf(teamIds, teamCount * 2);
+                teamNames = Arrays.copyOf(teamNames, teamCount * 2);
+            }
+            teamIds[teamCount] = teamId;
+            teamNames[teamCount] = teamName;
+            teamCodeById.put(teamId, teamCount);
+            return teamCount++;
+        }
+
+        private void grow() {
+            int capacity = memberIds.length * 2;
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            memberNames = Arrays.copyOf(memberNames, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamCodes = Arrays.copyOf(teamCodes, capacity);
+        }
+    }
+}
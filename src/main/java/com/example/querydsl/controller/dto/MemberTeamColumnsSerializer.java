@@ -0,0 +1,57 @@
+package com.example.querydsl.controller.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * MemberTeamDto 를 만들지 않고 컬럼 배열에서 바로 {@code [{"memberId":..}, ..]} 를 쓴다.
+ */
+public class MemberTeamColumnsSerializer extends StdSerializer<MemberTeamColumns> {
+    private static final SerializedString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializedString MEMBER_NAME = new SerializedString("memberName");
+    private static final SerializedString AGE = new SerializedString("age");
+    private static final SerializedString TEAM_ID = new SerializedString("teamId");
+    private static final SerializedString TEAM_NAME = new SerializedString("teamName");
+
+    public MemberTeamColumnsSerializer() {
+        super(MemberTeamColumns.class);
+    }
+
+    @Override
+    public void serialize(MemberTeamColumns columns, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+        gen.writeStartArray(columns, columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            gen.writeStartObject();
+
+            gen.writeFieldName(MEMBER_ID);
+            gen.writeNumber(columns.memberId(row));
+
+            gen.writeFieldName(MEMBER_NAME);
+            gen.writeString(columns.memberName(row));
+
+            gen.writeFieldName(AGE);
+            if (columns.hasAge(row)) {
+                gen.writeNumber(columns.age(row));
+            } else {
+                gen.writeNull();
+            }
+
+            gen.writeFieldName(TEAM_ID);
+            if (columns.hasTeam(row)) {
+                gen.writeNumber(columns.teamId(row));
+            } else {
+                gen.writeNull();
+            }
+
+            gen.writeFieldName(TEAM_NAME);
+            gen.writeString(columns.hasTeam(row) ? columns.teamName(row) : null);
+
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+}
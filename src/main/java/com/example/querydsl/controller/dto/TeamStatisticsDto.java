@@ -0,0 +1,25 @@
+package com.example.querydsl.controller.dto;
+
+import lombok.Data;
+
+@Data
+public class TeamStatisticsDto {
+    private final Long teamId;
+    private final String teamName;
+    private final Long memberCount;
+    private final Long ageSum;
+    private final Double ageAvg;
+    private final Integer ageMin;
+    private final Integer ageMax;
+
+    public TeamStatisticsDto(Long teamId, String teamName, Long memberCount, Long ageSum,
+        Double ageAvg, Integer ageMin, Integer ageMax) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.ageAvg = ageAvg;
+        this.ageMin = ageMin;
+        this.ageMax = ageMax;
+    }
+}
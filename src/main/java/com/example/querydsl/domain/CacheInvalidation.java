@@ -0,0 +1,59 @@
+package com.example.querydsl.domain;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 캐시 무효화 outbox. Member/Team 을 바꾼 트랜잭션이 같이 기록하고, 모든 노드가 id 순으로 읽어 간다.
+ * 행은 OutboxInvalidationBus 가 JDBC 로 쓰고 읽는다.
+ */
+@Entity
+@Table(name = "CACHE_INVALIDATION",
+    indexes = @Index(name = "IDX_CACHE_INVALIDATION_CREATED_AT", columnList = "created_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@ToString
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 16)
+    private EntityType entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "previous_team_id")
+    private Long previousTeamId;
+
+    // false 면 어느 팀이 바뀌었는지 모른다. (벌크 변경)
+    @Column(name = "teams_known")
+    private boolean teamsKnown;
+
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    public enum EntityType {
+        MEMBER, TEAM
+    }
+}
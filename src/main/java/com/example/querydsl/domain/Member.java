@@ -1,13 +1,17 @@
 package com.example.querydsl.domain;
 
 import java.util.Optional;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -16,7 +20,11 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "MEMBER")
+@Table(name = "MEMBER", indexes = {
+    @Index(name = "IDX_MEMBER_NAME", columnList = "name"),
+    @Index(name = "IDX_MEMBER_NORMALIZED_NAME", columnList = "normalized_name"),
+    @Index(name = "IDX_MEMBER_AGE", columnList = "age")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Setter(value = AccessLevel.PROTECTED)
@@ -28,6 +36,11 @@ public class Member {
 
     private String name;
 
+    // lower(name) 을 매 row 계산하지 않도록 저장 시점에 정규화해 두고 색인한다.
+    @Column(name = "normalized_name")
+    @Setter(AccessLevel.NONE)
+    private String normalizedName;
+
     private Integer age;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,6 +57,7 @@ public class Member {
 
     public Member(String name, Integer age, Team team) {
         this.name = name;
+        this.normalizedName = Names.normalize(name);
         this.age = age;
 
         if (team != null) {
@@ -52,19 +66,33 @@ public class Member {
     }
 
     public void changeTeam(Team team) {
-        if (this.team == team) {
+        if (Team.isSame(this.team, team)) {
             return;
         }
 
-        if (this.team != null) {
-            this.team.removeMember(this);
+        Team previous = this.team;
+        this.team = team;
+
+        if (previous != null) {
+            previous.removeMember(this);
         }
 
-        this.team = team;
-        team.addMember(this);
+        if (team != null) {
+            team.addMember(this);
+        }
+    }
+
+    public void changeAge(Integer age) {
+        this.age = age;
     }
 
     public String getTeamName() {
         return Optional.ofNullable(team).map(Team::getName).orElseThrow(IllegalStateException::new);
     }
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeName() {
+        this.normalizedName = Names.normalize(name);
+    }
 }
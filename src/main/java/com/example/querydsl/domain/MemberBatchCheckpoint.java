@@ -0,0 +1,77 @@
+package com.example.querydsl.domain;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * MemberBatchRunner 의 파티션(member.id 범위) 별 진행 상태.
+ * chunk 작업과 같은 트랜잭션에서 lastId 를 갱신하므로 재시작하면 마지막으로 커밋된 chunk 다음부터 이어서 처리한다.
+ */
+@Entity
+@Table(name = "MEMBER_BATCH_CHECKPOINT")
+@IdClass(MemberBatchCheckpoint.Key.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@ToString
+public class MemberBatchCheckpoint {
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    @Id
+    @Column(name = "range_start")
+    private Long rangeStart;
+
+    @Column(name = "range_end")
+    private Long rangeEnd;
+
+    // 마지막으로 처리한 member.id, 아직 없으면 null
+    @Column(name = "last_id")
+    private Long lastId;
+
+    private long processed;
+
+    private boolean completed;
+
+    public MemberBatchCheckpoint(String jobName, Long rangeStart, Long rangeEnd) {
+        this.jobName = jobName;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    public Key getKey() {
+        return new Key(jobName, rangeStart);
+    }
+
+    // 다음 chunk 는 이 id 보다 큰 id 부터 읽는다.
+    public long nextAfter() {
+        return lastId == null ? rangeStart - 1 : lastId;
+    }
+
+    public void advance(Long lastId, int count) {
+        this.lastId = lastId;
+        this.processed += count;
+    }
+
+    public void complete() {
+        this.completed = true;
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String jobName;
+        private Long rangeStart;
+    }
+}
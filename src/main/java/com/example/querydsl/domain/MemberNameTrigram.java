@@ -0,0 +1,66 @@
+package com.example.querydsl.domain;
+
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Member.name 의 부분 문자열 검색용 trigram 색인. (trigram, member_id) 가 PK 이므로 trigram 으로 바로 찾을 수 있다.
+ * 행은 MemberNameTrigramEventListener 가 Member 와 같은 트랜잭션에서 유지한다.
+ */
+@Entity
+@Table(name = "MEMBER_NAME_TRIGRAM",
+    indexes = @Index(name = "IDX_MEMBER_NAME_TRIGRAM_MEMBER", columnList = "member_id"))
+@IdClass(MemberNameTrigram.Key.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@ToString
+public class MemberNameTrigram {
+    public static final int GRAM_SIZE = 3;
+
+    @Id
+    @Column(length = GRAM_SIZE)
+    private String trigram;
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    public MemberNameTrigram(String trigram, Long memberId) {
+        this.trigram = trigram;
+        this.memberId = memberId;
+    }
+
+    // 대소문자 구분 없이 색인하고, 검색 시 원래 조건으로 한 번 더 거른다.
+    public static Set<String> trigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (text == null) {
+            return trigrams;
+        }
+
+        String normalized = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            trigrams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return trigrams;
+    }
+
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String trigram;
+        private Long memberId;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.querydsl.domain;
+
+import java.util.Locale;
+
+/**
+ * 대소문자 구분 없는 검색용 정규화. 저장(normalized_name 컬럼)과 검색 조건 양쪽에서 같은 규칙을 써야 색인을 탄다.
+ */
+public final class Names {
+    private Names() {
+    }
+
+    public static String normalize(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,22 +1,27 @@
 package com.example.querydsl.domain;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.Hibernate;
 
 @Entity
-@Table(name = "TEAM")
+@Table(name = "TEAM", indexes = @Index(name = "IDX_TEAM_NORMALIZED_NAME", columnList = "normalized_name"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Setter(value = AccessLevel.PROTECTED)
@@ -28,22 +33,58 @@ public class Team {
 
     private String name;
 
+    @Column(name = "normalized_name")
+    @Setter(AccessLevel.NONE)
+    private String normalizedName;
+
+    // Member 는 equals/hashCode 를 재정의하지 않으므로 identity 기반 HashSet 으로 O(1) 조회한다.
     @OneToMany(mappedBy = "team")
-    private List<Member> members = new ArrayList<>();
+    private Set<Member> members = new HashSet<>();
 
     public Team(String name) {
         this.name = name;
+        this.normalizedName = Names.normalize(name);
     }
 
+    // 연관관계의 주인은 Member.team 이다.
+    // members 가 아직 로딩되지 않았다면 건드리지 않는다. (초기화하지 않아도 flush 이후 로딩 시 DB 에서 반영된다.)
     public void removeMember(Member member) {
-        members.remove(member);
-        member.changeTeam(null);
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+
+        if (isSame(member.getTeam(), this)) {
+            member.changeTeam(null);
+        }
     }
 
     public void addMember(Member member) {
-        if (!members.contains(member)) {
-            members.add(member);
+        if (!isSame(member.getTeam(), this)) {
             member.changeTeam(this);
+            return;
+        }
+
+        if (Hibernate.isInitialized(members)) {
+            members.add(member);
         }
     }
+
+    // 같은 영속성 컨텍스트에서 프록시와 실제 엔티티를 같은 팀으로 취급한다.
+    static boolean isSame(Team team, Team other) {
+        if (team == other) {
+            return true;
+        }
+
+        if (team == null || other == null || team.getId() == null) {
+            return false;
+        }
+
+        return team.getId().equals(other.getId());
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeName() {
+        this.normalizedName = Names.normalize(name);
+    }
 }
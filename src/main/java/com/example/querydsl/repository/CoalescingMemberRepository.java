@@ -0,0 +1,99 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.controller.dto.MemberTeamDto;
+import com.example.querydsl.repository.support.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 동일한 조건/페이지로 동시에 들어온 검색 요청을 하나의 쿼리 실행으로 합친다.
+ * 페이지 조회는 {@link MemberPagePrefetcher} 가 미리 읽어 둔 페이지가 있으면 그것으로 응답한다.
+ */
+@Repository
+public class CoalescingMemberRepository implements MemberRepositoryCustom {
+    private final MemberRepository memberRepository;
+
+    private final MemberPagePrefetcher prefetcher;
+
+    private final SingleFlight<SearchKey, Object> singleFlight;
+
+    public CoalescingMemberRepository(MemberRepository memberRepository, MemberPagePrefetcher prefetcher,
+        MeterRegistry meterRegistry) {
+        this.memberRepository = memberRepository;
+        this.prefetcher = prefetcher;
+        this.singleFlight = new SingleFlight<>("member.search.coalescing", meterRegistry);
+    }
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return execute(SearchKey.of("search", condition, Pageable.unpaged()),
+            () -> memberRepository.search(condition));
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition,
+        Pageable pageable) {
+        return executePage(SearchKey.of("searchPageSimple", condition, pageable),
+            () -> memberRepository.searchPageSimple(condition, pageable));
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition,
+        Pageable pageable) {
+        return executePage(SearchKey.of("searchPageComplex", condition, pageable),
+            () -> memberRepository.searchPageComplex(condition, pageable));
+    }
+
+    @Override
+    public List<MemberTeamDto> searchByOrder(MemberSearchCondition condition, Pageable pageable) {
+        return execute(SearchKey.of("searchByOrder", condition, pageable),
+            () -> memberRepository.searchByOrder(condition, pageable));
+    }
+
+    // 미리 읽은 페이지로 응답한 경우에도 그 다음 페이지를 미리 읽어야 순서대로 넘기는 클라이언트가 계속 hit 한다.
+    private Page<MemberTeamDto> executePage(SearchKey key, Supplier<Page<MemberTeamDto>> loader) {
+        Page<MemberTeamDto> page = prefetcher.take(key);
+        if (page == null) {
+            page = execute(key, loader);
+        }
+
+        prefetcher.prefetchNext(key, page);
+        return page;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(SearchKey key, Supplier<T> loader) {
+        return (T) singleFlight.execute(key, loader::get);
+    }
+
+    @Value
+    static class SearchKey {
+        String operation;
+        MemberSearchCondition condition;
+        Pageable pageable;
+
+        static SearchKey of(String operation, MemberSearchCondition condition, Pageable pageable) {
+            return new SearchKey(operation, condition, normalize(pageable));
+        }
+
+        SearchKey next() {
+            return new SearchKey(operation, condition, pageable.next());
+        }
+
+        // Pageable 구현체가 달라도 같은 페이지면 같은 key 가 되도록 PageRequest 로 맞춘다.
+        private static Pageable normalize(Pageable pageable) {
+            if (pageable.isUnpaged()) {
+                return Pageable.unpaged();
+            }
+            return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.querydsl.repository;
+
+import static com.example.querydsl.domain.QMember.member;
+import static com.example.querydsl.domain.QTeam.team;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.sharding.ShardContext;
+import com.example.querydsl.repository.support.QueryTimeouts;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.querydsl.jpa.hibernate.HibernateQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 배치 작업용으로 조건에 맞는 Member 를 StatelessSession 의 forward-only 커서로 한 건씩 읽는다.
+ *
+ * <p>영속성 컨텍스트와 dirty checking 스냅샷이 없으므로 처리한 row 는 바로 GC 대상이 된다.
+ * 대신 반환된 Member 는 detached 상태라 지연 로딩({@code member.getTeam().getName()})을 할 수 없다.
+ * 팀 정보가 필요하면 DTO projection 을 사용한다.
+ *
+ * <p>샤딩 중에는 조건에 맞는 shard 를 차례로 읽는다. 한 번에 shard 하나의 커서(커넥션)만 연다.
+ */
+@Repository
+@Workload(WorkloadClass.BULK)
+public class MemberCursorRepository {
+    private final SessionFactory sessionFactory;
+
+    private final int defaultFetchSize;
+
+    private final QueryTimeouts queryTimeouts;
+
+    private final MemberShards memberShards;
+
+    public MemberCursorRepository(EntityManagerFactory entityManagerFactory,
+        @Value("${member.cursor.fetch-size:1000}") int defaultFetchSize, QueryTimeouts queryTimeouts,
+        MemberShards memberShards) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.defaultFetchSize = defaultFetchSize;
+        this.queryTimeouts = queryTimeouts;
+        this.memberShards = memberShards;
+    }
+
+    public long forEach(MemberSearchCondition condition, Consumer<Member> action) {
+        return forEach(condition, defaultFetchSize, action);
+    }
+
+    // 처리한 row 수를 반환한다.
+    public long forEach(MemberSearchCondition condition, int fetchSize, Consumer<Member> action) {
+        try (Stream<Member> members = stream(condition, fetchSize)) {
+            long[] count = {0};
+            members.forEach(member -> {
+                action.accept(member);
+                count[0]++;
+            });
+            return count[0];
+        }
+    }
+
+    public Stream<Member> stream(MemberSearchCondition condition) {
+        return stream(condition, defaultFetchSize);
+    }
+
+    /**
+     * 커서와 세션(커넥션)을 잡고 있으므로 반드시 try-with-resources 로 닫아야 한다.
+     */
+    public Stream<Member> stream(MemberSearchCondition condition, int fetchSize) {
+        if (!memberShards.isSharded()) {
+            return streamShard(condition, fetchSize);
+        }
+
+        // 중간에 닫혀도 열어 둔 shard 커서가 남지 않게 직접 닫는다. (이미 닫힌 stream 은 다시 닫히지 않는다)
+        List<Stream<Member>> opened = new ArrayList<>();
+        return memberShards.shardsFor(condition).stream()
+            .flatMap(shard -> {
+                Stream<Member> members = ShardContext.call(shard, () -> streamShard(condition, fetchSize));
+                opened.add(members);
+                return members;
+            })
+            .onClose(() -> opened.forEach(Stream::close));
+    }
+
+    private Stream<Member> streamShard(MemberSearchCondition condition, int fetchSize) {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            // fetch size 가 적용되도록(PostgreSQL 등은 auto-commit 이면 전체를 읽어 온다) 트랜잭션 안에서 연다.
+            Transaction transaction = session.beginTransaction();
+            // HibernateQueryFactory 는 Session 만 받으므로 StatelessSession 용 생성자로 직접 만든다.
+            ScrollableResults results = new HibernateQuery<Member>(session)
+                .select(member)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(condition.allCondition())
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                // StatelessSession 에는 Hibernate 기본 timeout 이 적용되지 않는다.
+                .setTimeout(queryTimeouts.timeoutSeconds())
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+            Spliterator<Member> spliterator = new Spliterators.AbstractSpliterator<Member>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Member> action) {
+                    if (!results.next()) {
+                        return false;
+                    }
+                    action.accept((Member) results.get(0));
+                    return true;
+                }
+            };
+
+            return StreamSupport.stream(spliterator, false)
+                .onClose(() -> close(session, transaction, results));
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    private static void close(StatelessSession session, Transaction transaction,
+        ScrollableResults results) {
+        try {
+            results.close();
+            if (transaction.isActive()) {
+                transaction.commit();
+            }
+        } finally {
+            session.close();
+        }
+    }
+}
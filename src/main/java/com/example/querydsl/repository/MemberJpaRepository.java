@@ -6,25 +6,66 @@ import static java.util.Objects.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
 import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.controller.dto.MemberTeamColumns;
 import com.example.querydsl.controller.dto.MemberTeamDto;
 import com.example.querydsl.controller.dto.QMemberTeamDto;
 import com.example.querydsl.domain.Member;
+import com.example.querydsl.repository.jfr.RecordQueryPhases;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.support.InstrumentedQueryFactory;
+import com.example.querydsl.repository.support.QueryTimeouts;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.google.common.collect.Lists;
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * 샤딩 중에는 조회 메서드가 {@link MemberShards} 로 필요한 shard 에서만 실행하고 결과를 합친다.
+ * save/findById 와 findAll(), findByName* 같은 예제 메서드는 shard 를 모르므로 0 번 shard 만 본다.
+ * (샤딩 중 저장/단건 조회는 ShardedMemberRepository)
+ */
 @Repository
+@Workload(WorkloadClass.INTERACTIVE)
 public class MemberJpaRepository {
+    // in_clause_parameter_padding 이 2의 거듭제곱으로 파라미터를 채우므로 chunk 도 2의 거듭제곱으로 맞춘다.
+    private static final int IN_CLAUSE_CHUNK_SIZE = 512;
+
+    private static final Comparator<MemberTeamDto> BY_MEMBER_ID = Comparator.comparing(MemberTeamDto::getMemberId);
+
     private final EntityManager em;
 
     private final JPAQueryFactory queryFactory;
 
-    public MemberJpaRepository(EntityManager em) {
+    private final MemberShards memberShards;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MemberJpaRepository(EntityManager em, QueryTimeouts queryTimeouts, MemberShards memberShards,
+        PlatformTransactionManager transactionManager) {
         this.em = em;
-        this.queryFactory = new JPAQueryFactory(em);
+        this.queryFactory = new InstrumentedQueryFactory(em, queryTimeouts);
+        this.memberShards = memberShards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     public void save(Member member) {
@@ -36,6 +77,58 @@ public class MemberJpaRepository {
         return Optional.ofNullable(member);
     }
 
+    @RecordQueryPhases
+    public List<MemberTeamDto> findAllById(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+
+        Map<Long, MemberTeamDto> resultById = new HashMap<>();
+        memberShards.scatterByIds(distinctIds, this::findAllByIdOnShard)
+            .forEach(result -> result.forEach(dto -> resultById.put(dto.getMemberId(), dto)));
+
+        return distinctIds.stream()
+            .map(resultById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private List<MemberTeamDto> findAllByIdOnShard(List<Long> ids) {
+        List<MemberTeamDto> result = new ArrayList<>();
+        for (List<Long> chunk : Lists.partition(ids, IN_CLAUSE_CHUNK_SIZE)) {
+            result.addAll(queryFactory
+                .select(new QMemberTeamDto(
+                    member.id,
+                    member.name,
+                    member.age,
+                    team.id,
+                    team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(chunk))
+                .fetch());
+        }
+        return result;
+    }
+
+    // 엔티티 자체가 필요할 때의 findAllById. 순서는 보장하지 않는다.
+    // 샤딩 중에는 shard 스레드의 영속성 컨텍스트에서 읽으므로 반환된 엔티티는 detached 다.
+    public List<Member> findMembersById(Collection<Long> ids) {
+        return MemberShards.concat(memberShards.scatterByIds(ids, this::findMembersByIdOnShard));
+    }
+
+    private List<Member> findMembersByIdOnShard(List<Long> ids) {
+        List<Member> result = new ArrayList<>();
+        for (List<Long> chunk : Lists.partition(new ArrayList<>(new HashSet<>(ids)), IN_CLAUSE_CHUNK_SIZE)) {
+            result.addAll(queryFactory
+                .selectFrom(member)
+                .where(member.id.in(chunk))
+                .fetch());
+        }
+        return result;
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
             .getResultList();
@@ -60,7 +153,13 @@ public class MemberJpaRepository {
             .fetch();
     }
 
+    @RecordQueryPhases
     public List<MemberTeamDto> searchByConditionByBooleanBuilder(MemberSearchCondition condition) {
+        return MemberShards.concat(memberShards.scatter(condition,
+            () -> searchByConditionByBooleanBuilderOnShard(condition)));
+    }
+
+    private List<MemberTeamDto> searchByConditionByBooleanBuilderOnShard(MemberSearchCondition condition) {
         BooleanBuilder builder = new BooleanBuilder();
 
         if (isNotBlank(condition.getMemberName())) {
@@ -92,7 +191,12 @@ public class MemberJpaRepository {
             .fetch();
     }
 
+    @RecordQueryPhases
     public List<MemberTeamDto> searchByCondition(MemberSearchCondition condition) {
+        return MemberShards.concat(memberShards.scatter(condition, () -> searchByConditionOnShard(condition)));
+    }
+
+    private List<MemberTeamDto> searchByConditionOnShard(MemberSearchCondition condition) {
         return queryFactory
             .select(new QMemberTeamDto(
                 member.id,
@@ -104,21 +208,166 @@ public class MemberJpaRepository {
             .leftJoin(member.team, team)
             .where(
                 condition.memberNameEq(),
+                condition.memberNameLike(),
+                condition.memberNamePrefix(),
                 condition.teamNameEq(),
                 condition.ageGoe(),
                 condition.ageLoe()
-            ).fetch();
+            )
+            .fetch();
+    }
+
+    /**
+     * 여러 조건을 한 트랜잭션(커넥션 하나, workload permit 하나)에서 차례로 실행하고 입력 순서대로 결과를 돌려준다.
+     * 같은 조건은 한 번만 실행하고, 모양(shape)이 같은 조건들은 OR 로 묶은 쿼리 하나로 읽은 뒤
+     * 읽은 row 를 조건마다 Java 에서 다시 걸러 나눈다. memberNameLike 는 OR 안에서 trigram 서브쿼리가 반복되므로 묶지 않는다.
+     * 샤딩 중에는 shard 마다 같은 일을 하고 조건별로 결과를 이어 붙인다.
+     */
+    @RecordQueryPhases
+    public List<List<MemberTeamDto>> searchByConditions(List<MemberSearchCondition> conditions) {
+        List<List<List<MemberTeamDto>>> byShard = memberShards.scatterAll(
+            () -> readOnlyTransaction.execute(status -> searchByConditionsOnShard(conditions)));
+        if (byShard.size() == 1) {
+            return byShard.get(0);
+        }
+
+        List<List<MemberTeamDto>> result = new ArrayList<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            int index = i;
+            result.add(MemberShards.concat(byShard.stream()
+                .map(shardResult -> shardResult.get(index))
+                .collect(Collectors.toList())));
+        }
+        return result;
     }
 
+    private List<List<MemberTeamDto>> searchByConditionsOnShard(List<MemberSearchCondition> conditions) {
+        Map<String, List<MemberSearchCondition>> byShape = conditions.stream()
+            .distinct()
+            .collect(Collectors.groupingBy(MemberSearchCondition::shape, LinkedHashMap::new,
+                Collectors.toList()));
+
+        Map<MemberSearchCondition, List<MemberTeamDto>> resultByCondition = new HashMap<>();
+        for (List<MemberSearchCondition> group : byShape.values()) {
+            if (group.size() > 1 && combinable(group.get(0))) {
+                resultByCondition.putAll(searchCombined(group));
+            } else {
+                group.forEach(condition -> resultByCondition.put(condition, searchByConditionOnShard(condition)));
+            }
+        }
+
+        return conditions.stream()
+            .map(resultByCondition::get)
+            .collect(Collectors.toList());
+    }
+
+    // CASE 로 조건마다 태그를 select 하면 HQLTemplates 가 CASE 안의 상수를 SQL 리터럴로 넣는다.
+    // SQL 에는 바인딩 파라미터로 OR 한 where 만 두고, 어느 조건의 결과인지는 읽은 row 로 Java 에서 가린다.
+    private Map<MemberSearchCondition, List<MemberTeamDto>> searchCombined(List<MemberSearchCondition> group) {
+        BooleanBuilder any = new BooleanBuilder();
+        group.forEach(condition -> any.or(ExpressionUtils.allOf(condition.allCondition())));
+
+        List<MemberTeamDto> rows = queryFactory
+            .select(new QMemberTeamDto(
+                member.id,
+                member.name,
+                member.age,
+                team.id,
+                team.name))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(any)
+            .fetch();
+
+        Map<MemberSearchCondition, List<MemberTeamDto>> result = new HashMap<>();
+        group.forEach(condition -> result.put(condition, rows.stream()
+            .filter(condition::matches)
+            .collect(Collectors.toList())));
+        return result;
+    }
+
+    // 조건이 하나도 없으면 묶어도 이득이 없다.
+    private static boolean combinable(MemberSearchCondition condition) {
+        return condition.getMemberNameLike() == null && !condition.shape().isEmpty();
+    }
+
+    // member.id 순서로 afterMemberId 다음 row 부터 limit 개. offset 없이 다음 페이지를 읽는다. (keyset)
+    @RecordQueryPhases
+    public List<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long afterMemberId, int limit) {
+        return MemberShards.merge(memberShards.scatter(condition,
+            () -> searchAfterOnShard(condition, afterMemberId, limit)), BY_MEMBER_ID, 0, limit);
+    }
+
+    private List<MemberTeamDto> searchAfterOnShard(MemberSearchCondition condition, Long afterMemberId, int limit) {
+        return queryFactory
+            .select(new QMemberTeamDto(
+                member.id,
+                member.name,
+                member.age,
+                team.id,
+                team.name))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(condition.allCondition())
+            .where(member.id.gt(afterMemberId))
+            .orderBy(member.id.asc())
+            .limit(limit)
+            .fetch();
+    }
+
+    // 결과 row 를 MemberTeamDto 로 모으지 않고 stream 으로 읽으면서 바로 컬럼 배열에 채운다.
+    // stream 을 다 읽을 때까지 커넥션을 잡아야 하므로 shard 마다 트랜잭션 안에서 실행한다.
+    @RecordQueryPhases
+    public MemberTeamColumns searchColumns(MemberSearchCondition condition) {
+        List<MemberTeamColumns> byShard = memberShards.scatter(condition,
+            () -> readOnlyTransaction.execute(status -> searchColumnsOnShard(condition)));
+        if (byShard.size() == 1) {
+            return byShard.get(0);
+        }
+
+        MemberTeamColumns.Builder columns = MemberTeamColumns.builder();
+        byShard.forEach(columns::addAll);
+        return columns.build();
+    }
+
+    private MemberTeamColumns searchColumnsOnShard(MemberSearchCondition condition) {
+        MemberTeamColumns.Builder columns = MemberTeamColumns.builder();
+
+        try (Stream<Tuple> rows = queryFactory
+            .select(member.id, member.name, member.age, team.id, team.name)
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(condition.allCondition())
+            .stream()) {
+
+            rows.forEach(row -> columns.add(
+                row.get(member.id),
+                row.get(member.name),
+                row.get(member.age),
+                row.get(team.id),
+                row.get(team.name)));
+        }
+
+        return columns.build();
+    }
+
+    @RecordQueryPhases
     public List<Member> findAll(MemberSearchCondition condition) {
+        return MemberShards.concat(memberShards.scatter(condition, () -> findAllOnShard(condition)));
+    }
+
+    private List<Member> findAllOnShard(MemberSearchCondition condition) {
         return queryFactory
             .selectFrom(member)
             .leftJoin(member.team, team)
             .where(
                 condition.memberNameEq(),
+                condition.memberNameLike(),
+                condition.memberNamePrefix(),
                 condition.teamNameEq(),
                 condition.ageGoe(),
                 condition.ageLoe()
-            ).fetch();
+            )
+            .fetch();
     }
 }
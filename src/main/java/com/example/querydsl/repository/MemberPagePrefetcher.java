@@ -0,0 +1,203 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.controller.dto.MemberTeamDto;
+import com.example.querydsl.repository.CoalescingMemberRepository.SearchKey;
+import com.example.querydsl.repository.invalidation.InvalidationEvent;
+import com.example.querydsl.repository.invalidation.InvalidationListener;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.workload.WorkloadBulkheads;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 페이지를 순서대로 넘기는 클라이언트를 위해 page N 을 응답한 뒤 page N+1 을 미리 읽어 둔다. (member.prefetch.enabled)
+ *
+ * <ul>
+ *     <li>다음 페이지는 page N 의 마지막 member.id 다음부터 keyset 으로 읽고, total 은 page N 의 값을 그대로 쓴다.</li>
+ *     <li>스레드 하나짜리 낮은 우선순위 executor 에서 실행하고, 큐가 차거나 interactive workload 사용률이
+ *     max-utilization 이상이면 건너뛴다.</li>
+ *     <li>읽어 둔 페이지는 ttl 동안 최대 max-entries 개 보관하고, 한 번 응답에 쓰이면 지운다.</li>
+ * </ul>
+ *
+ * <p>ttl 사이에 바뀐 데이터는 반영되지 않을 수 있다. 무효화 bus 가 있으면 어느 노드든 member/team 이 바뀔 때 모두 지운다. keyset 조회는 shard 를 나누지 않으므로 샤딩 중에는 꺼진다.
+ *
+ * <p>metrics: member.prefetch.{hit,miss,loaded,wasted,skipped}, member.prefetch.hit.ratio,
+ * member.prefetch.waste.ratio (읽어 두었지만 쓰이지 않고 만료/축출된 비율)
+ */
+@Slf4j
+@Component
+public class MemberPagePrefetcher implements InvalidationListener, DisposableBean {
+    private final MemberJpaRepository memberJpaRepository;
+
+    private final WorkloadBulkheads workloadBulkheads;
+
+    private final boolean enabled;
+
+    private final double maxUtilization;
+
+    private final Cache<SearchKey, Page<MemberTeamDto>> cache;
+
+    private final Set<SearchKey> loading = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor executor;
+
+    private final Counter hit;
+
+    private final Counter miss;
+
+    private final Counter loaded;
+
+    private final Counter wasted;
+
+    private final MeterRegistry meterRegistry;
+
+    public MemberPagePrefetcher(MemberJpaRepository memberJpaRepository, WorkloadBulkheads workloadBulkheads,
+        MemberShards memberShards, MeterRegistry meterRegistry,
+        @Value("${member.prefetch.enabled:false}") boolean enabled,
+        @Value("${member.prefetch.max-entries:1000}") int maxEntries,
+        @Value("${member.prefetch.ttl:PT10S}") Duration ttl,
+        @Value("${member.prefetch.queue-capacity:16}") int queueCapacity,
+        @Value("${member.prefetch.max-utilization:0.5}") double maxUtilization) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.workloadBulkheads = workloadBulkheads;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled && !memberShards.isSharded();
+        this.maxUtilization = maxUtilization;
+
+        this.hit = meterRegistry.counter("member.prefetch.hit");
+        this.miss = meterRegistry.counter("member.prefetch.miss");
+        this.loaded = meterRegistry.counter("member.prefetch.loaded");
+        this.wasted = meterRegistry.counter("member.prefetch.wasted");
+        meterRegistry.gauge("member.prefetch.hit.ratio", this,
+            prefetcher -> ratio(prefetcher.hit.count(), prefetcher.hit.count() + prefetcher.miss.count()));
+        meterRegistry.gauge("member.prefetch.waste.ratio", this,
+            prefetcher -> ratio(prefetcher.wasted.count(), prefetcher.loaded.count()));
+
+        // 응답에 쓰여 지워진 경우(EXPLICIT)가 아니라 만료/축출된 경우만 낭비로 센다.
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttl)
+            .removalListener((RemovalListener<SearchKey, Page<MemberTeamDto>>) notification -> {
+                if (notification.wasEvicted()) {
+                    wasted.increment();
+                }
+            })
+            .build();
+
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "member-prefetch");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+    }
+
+    // 미리 읽어 둔 페이지가 있으면 꺼낸다. 첫 페이지는 미리 읽을 수 없으므로 hit/miss 에 넣지 않는다.
+    Page<MemberTeamDto> take(SearchKey key) {
+        if (!enabled || key.getPageable().isUnpaged() || key.getPageable().getPageNumber() == 0) {
+            return null;
+        }
+
+        Page<MemberTeamDto> page = cache.asMap().remove(key);
+        if (page == null) {
+            miss.increment();
+        } else {
+            hit.increment();
+        }
+        return page;
+    }
+
+    // page 를 응답한 뒤 호출한다.
+    void prefetchNext(SearchKey key, Page<MemberTeamDto> page) {
+        if (!enabled || !page.hasNext() || page.getContent().isEmpty()) {
+            return;
+        }
+
+        SearchKey next = key.next();
+        if (cache.getIfPresent(next) != null || !loading.add(next)) {
+            return;
+        }
+        if (busy()) {
+            skipped(next, "busy");
+            return;
+        }
+
+        List<MemberTeamDto> content = page.getContent();
+        Long afterMemberId = content.get(content.size() - 1).getMemberId();
+        try {
+            executor.execute(() -> load(next, afterMemberId, page.getTotalElements()));
+        } catch (RejectedExecutionException e) {
+            skipped(next, "queue-full");
+        }
+    }
+
+    private void load(SearchKey next, Long afterMemberId, long total) {
+        try {
+            // 큐에서 기다리는 사이에 바빠졌을 수 있다.
+            if (busy()) {
+                meterRegistry.counter("member.prefetch.skipped", "reason", "busy").increment();
+                return;
+            }
+
+            List<MemberTeamDto> content = memberJpaRepository.searchAfter(next.getCondition(), afterMemberId,
+                next.getPageable().getPageSize());
+            cache.put(next, new PageImpl<>(content, next.getPageable(), total));
+            loaded.increment();
+        } catch (RuntimeException e) {
+            meterRegistry.counter("member.prefetch.skipped", "reason", "error").increment();
+            log.debug("Failed to prefetch {}", next, e);
+        } finally {
+            loading.remove(next);
+        }
+    }
+
+    private boolean busy() {
+        return workloadBulkheads.utilization(WorkloadClass.INTERACTIVE) >= maxUtilization;
+    }
+
+    private void skipped(SearchKey next, String reason) {
+        loading.remove(next);
+        meterRegistry.counter("member.prefetch.skipped", "reason", reason).increment();
+    }
+
+    // 만료된 항목은 접근할 때 정리되므로 주기적으로 정리해야 wasted 가 늦지 않게 집계된다.
+    @Scheduled(fixedDelayString = "${member.prefetch.ttl:PT10S}")
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    // 바뀐 member 가 어느 페이지에 들어가는지 알 수 없으므로 전부 지운다.
+    @Override
+    public void onInvalidation(List<InvalidationEvent> events) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static double ratio(double part, double whole) {
+        return whole == 0 ? 0 : part / whole;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * MemberRepositoryCustom 의 조회를 조건 모양마다 미리 실행해서 Hibernate query plan, Querydsl 직렬화,
+ * Jackson serializer 와 JIT 를 데워 둔다. (startup.warm-up.enabled)
+ *
+ * <p>ApplicationRunner 는 readiness 가 ACCEPTING_TRAFFIC 으로 바뀌기 전에 실행되므로
+ * /actuator/health/readiness 는 warm-up 이 끝난 뒤 UP 이 된다.
+ *
+ * <p>조건마다 일치하는 row 가 없는 값을 넣어 데이터 양과 관계없이 빨리 끝난다.
+ * AppCDS 클래스 목록을 만드는 training run 은 CdsTrainingRun 이 warm-up 뒤 종료한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "startup.warm-up", name = "enabled", havingValue = "true")
+public class MemberQueryWarmUp implements ApplicationRunner {
+    private static final String NO_MATCH = "__warm-up__";
+
+    private final MemberRepository memberRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final int iterations;
+
+    public MemberQueryWarmUp(MemberRepository memberRepository, ObjectMapper objectMapper,
+        @Value("${startup.warm-up.iterations:50}") int iterations) {
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws JsonProcessingException {
+        long start = System.nanoTime();
+        List<MemberSearchCondition> conditions = conditions();
+        Pageable page = PageRequest.of(1, 20);
+        Pageable ordered = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("age"), Sort.Order.asc("name")));
+
+        for (int i = 0; i < iterations; i++) {
+            for (MemberSearchCondition condition : conditions) {
+                objectMapper.writeValueAsString(memberRepository.search(condition));
+                objectMapper.writeValueAsString(memberRepository.searchPageSimple(condition, page));
+                objectMapper.writeValueAsString(memberRepository.searchPageComplex(condition, page));
+                objectMapper.writeValueAsString(memberRepository.searchByOrder(condition, ordered));
+            }
+        }
+
+        log.info("Warmed up {} query shapes x {} iterations in {} ms", conditions.size(), iterations,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // MemberSearchCondition.shape() 가 서로 다른 조합. 조건이 없는 조회는 모든 row 를 읽으므로 넣지 않는다.
+    private static List<MemberSearchCondition> conditions() {
+        return List.of(
+            MemberSearchCondition.builder().memberName(NO_MATCH).build(),
+            MemberSearchCondition.builder().memberName(NO_MATCH).ignoreCase(true).build(),
+            MemberSearchCondition.builder().memberNameLike(NO_MATCH).build(),
+            MemberSearchCondition.builder().memberNamePrefix(NO_MATCH).build(),
+            MemberSearchCondition.builder().teamName(NO_MATCH).build(),
+            MemberSearchCondition.builder().teamName(NO_MATCH).ignoreCase(true).build(),
+            MemberSearchCondition.builder().teamName(NO_MATCH).ageGoe(20).ageLoe(40).build(),
+            MemberSearchCondition.builder().ageGoe(Integer.MAX_VALUE).build(),
+            MemberSearchCondition.builder().ageGoe(Integer.MAX_VALUE).ageLoe(Integer.MAX_VALUE).build());
+    }
+}
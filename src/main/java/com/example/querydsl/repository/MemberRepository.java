@@ -1,11 +1,47 @@
 package com.example.querydsl.repository;
 
 import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Names;
+import com.example.querydsl.domain.QMember;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.querydsl.core.types.dsl.StringExpression;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
 
+// Spring Data 프록시는 WorkloadAnnotationPostProcessor 가 인터페이스의 @Workload 를 보고 감싼다.
+@Workload(WorkloadClass.INTERACTIVE)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom,
-    QuerydslPredicateExecutor<Member> {
+    QuerydslPredicateExecutor<Member>, QuerydslBinderCustomizer<QMember> {
+    // @QuerydslPredicate 로 받을 수 있는 요청 파라미터. 모두 색인된 컬럼으로만 조회된다.
+    Set<String> PREDICATE_PARAMETERS = Set.of("name", "age", "team.name");
+
     List<Member> findByName(String name);
+
+    /**
+     * <ul>
+     *     <li>name: IDX_MEMBER_NAME 으로 일치 조회</li>
+     *     <li>age: 값이 하나면 일치, 여러 개면 최소~최대 범위 (?age=20&age=30), IDX_MEMBER_AGE</li>
+     *     <li>team.name: 대소문자 구분 없이 IDX_TEAM_NORMALIZED_NAME 으로 조회</li>
+     * </ul>
+     * 그 외의 경로는 바인딩하지 않는다.
+     */
+    @Override
+    default void customize(QuerydslBindings bindings, QMember root) {
+        bindings.excludeUnlistedProperties(true);
+        bindings.including(root.name, root.age, root.team.name);
+
+        bindings.bind(root.name).first(StringExpression::eq);
+        bindings.bind(root.age).all((path, values) -> values.size() == 1
+            ? Optional.of(path.eq(values.iterator().next()))
+            : Optional.of(path.between(Collections.min(values), Collections.max(values))));
+        bindings.bind(root.team.name)
+            .first((path, value) -> root.team.normalizedName.eq(Names.normalize(value)));
+    }
 }
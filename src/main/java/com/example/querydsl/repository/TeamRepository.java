@@ -0,0 +1,20 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.domain.Names;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@Workload(WorkloadClass.INTERACTIVE)
+public interface TeamRepository extends JpaRepository<Team, Long> {
+    List<Team> findByName(String name);
+
+    List<Team> findByNormalizedName(String normalizedName);
+
+    // findByNameIgnoreCase 는 upper(name) 을 매 row 계산하므로 색인된 normalized_name 으로 찾는다.
+    default List<Team> searchByNameIgnoreCase(String name) {
+        return findByNormalizedName(Names.normalize(name));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.querydsl.repository.analytics;
+
+import static com.example.querydsl.repository.analytics.SMember.member;
+import static com.example.querydsl.repository.analytics.STeam.team;
+
+import com.example.querydsl.controller.dto.MemberRankDto;
+import com.example.querydsl.controller.dto.MemberRunningTotalDto;
+import com.example.querydsl.repository.jfr.RecordQueryPhases;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.sharding.UnsupportedShardQueryException;
+import com.example.querydsl.repository.support.DtoProjections;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.StatementOptions;
+import com.querydsl.sql.WindowFunction;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * JPQL 로는 표현할 수 없는 window function / FROM 서브쿼리 리포트를 querydsl-sql 로 DB 에서 계산한다.
+ *
+ * <p>window 는 모두 team_id 로 나누고 team 의 member 는 한 shard 에 있으므로, 샤딩 중에는 shard 마다 계산해
+ * team id 순서로 합친다. 한 team 의 row 는 한 shard 에서만 오므로 team 안의 순서는 그대로다.
+ */
+@Repository
+@Workload(WorkloadClass.BULK)
+@Transactional(readOnly = true)
+public class MemberAnalyticsRepository {
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final Comparator<MemberRankDto> BY_TEAM_ID = Comparator.comparing(MemberRankDto::getTeamId);
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    private final MemberShards memberShards;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MemberAnalyticsRepository(SQLQueryFactory sqlQueryFactory, MemberShards memberShards,
+        PlatformTransactionManager transactionManager) {
+        this.sqlQueryFactory = sqlQueryFactory;
+        this.memberShards = memberShards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // rank() over (partition by team_id order by age desc)
+    @RecordQueryPhases
+    public List<MemberRankDto> rankByAgeWithinTeam() {
+        return MemberShards.merge(memberShards.scatterAll(
+                () -> readOnlyTransaction.execute(status -> rankByAgeWithinTeamOnShard())),
+            BY_TEAM_ID, 0, Long.MAX_VALUE);
+    }
+
+    private List<MemberRankDto> rankByAgeWithinTeamOnShard() {
+        return sqlQueryFactory
+            .select(DtoProjections.constructor(MemberRankDto.class,
+                member.id, member.name, member.age, team.id, team.name, ageRankWithinTeam()))
+            .from(member)
+            .innerJoin(team).on(member.teamId.eq(team.id))
+            .orderBy(team.id.asc(), member.age.desc(), member.id.asc())
+            .fetch();
+    }
+
+    // rank 는 WHERE 에서 쓸 수 없으므로 FROM 서브쿼리로 감싼 뒤 거른다.
+    @RecordQueryPhases
+    public List<MemberRankDto> topByAgePerTeam(int limit) {
+        return MemberShards.merge(memberShards.scatterAll(
+                () -> readOnlyTransaction.execute(status -> topByAgePerTeamOnShard(limit))),
+            BY_TEAM_ID, 0, Long.MAX_VALUE);
+    }
+
+    private List<MemberRankDto> topByAgePerTeamOnShard(int limit) {
+        PathBuilder<Object> ranked = new PathBuilder<>(Object.class, "ranked");
+        NumberPath<Long> memberId = ranked.getNumber("member_id", Long.class);
+        StringPath memberName = ranked.getString("member_name");
+        NumberPath<Integer> age = ranked.getNumber("age", Integer.class);
+        NumberPath<Long> teamId = ranked.getNumber("team_id", Long.class);
+        StringPath teamName = ranked.getString("team_name");
+        NumberPath<Long> rank = ranked.getNumber("rnk", Long.class);
+
+        return sqlQueryFactory
+            .select(DtoProjections.constructor(MemberRankDto.class,
+                memberId, memberName, age, teamId, teamName, rank))
+            .from(SQLExpressions
+                .select(
+                    member.id.as("member_id"),
+                    member.name.as("member_name"),
+                    member.age.as("age"),
+                    team.id.as("team_id"),
+                    team.name.as("team_name"),
+                    ageRankWithinTeam().as("rnk"))
+                .from(member)
+                .innerJoin(team).on(member.teamId.eq(team.id)), ranked)
+            .where(rank.loe((long) limit))
+            .orderBy(teamId.asc(), rank.asc(), memberId.asc())
+            .fetch();
+    }
+
+    // sum(age) over (partition by team_id order by age, id)
+    // 결과를 모으지 않고 커서로 흘려보내므로 호출자의 트랜잭션 안에서 소비하고 close 해야 한다.
+    // 호출자의 트랜잭션은 shard 하나의 커넥션이므로 샤딩 중에는 거절한다.
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<MemberRunningTotalDto> streamRunningAgeTotals() {
+        if (memberShards.isSharded()) {
+            throw new UnsupportedShardQueryException(
+                "streamRunningAgeTotals is not supported with sharding.enabled=true, it reads one shard only");
+        }
+
+        WindowFunction<Long> runningAgeSum = SQLExpressions.sum(member.age.castToNum(Long.class))
+            .over()
+            .partitionBy(member.teamId)
+            .orderBy(member.age.asc(), member.id.asc());
+
+        SQLQuery<MemberRunningTotalDto> query = sqlQueryFactory
+            .select(DtoProjections.constructor(MemberRunningTotalDto.class,
+                member.id, member.name, member.age, member.teamId, runningAgeSum))
+            .from(member)
+            .where(member.teamId.isNotNull())
+            .orderBy(member.teamId.asc(), member.age.asc(), member.id.asc());
+        query.setStatementOptions(StatementOptions.builder().setFetchSize(STREAM_FETCH_SIZE).build());
+
+        CloseableIterator<MemberRunningTotalDto> iterator = query.iterate();
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+            .onClose(iterator::close);
+    }
+
+    private static WindowFunction<Long> ageRankWithinTeam() {
+        return SQLExpressions.rank()
+            .over()
+            .partitionBy(member.teamId)
+            .orderBy(member.age.desc());
+    }
+}
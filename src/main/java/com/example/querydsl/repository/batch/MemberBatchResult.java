@@ -0,0 +1,18 @@
+package com.example.querydsl.repository.batch;
+
+import lombok.Value;
+
+@Value
+public class MemberBatchResult {
+    int partitions;
+    // 이전 실행에서 이미 완료되어 건너뛴 파티션 수
+    int skippedPartitions;
+    long chunks;
+    long processed;
+
+    // shard 별 결과를 더한다.
+    public MemberBatchResult plus(MemberBatchResult other) {
+        return new MemberBatchResult(partitions + other.partitions, skippedPartitions + other.skippedPartitions,
+            chunks + other.chunks, processed + other.processed);
+    }
+}
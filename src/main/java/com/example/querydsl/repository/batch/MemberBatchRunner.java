@@ -0,0 +1,220 @@
+package com.example.querydsl.repository.batch;
+
+import static com.example.querydsl.domain.QMember.member;
+import static com.example.querydsl.domain.QMemberBatchCheckpoint.memberBatchCheckpoint;
+import static com.example.querydsl.domain.QTeam.team;
+
+import com.example.querydsl.config.InvalidationProperties;
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.MemberBatchCheckpoint;
+import com.example.querydsl.repository.invalidation.InvalidationBus;
+import com.example.querydsl.repository.invalidation.InvalidationEvent;
+import com.example.querydsl.repository.search.MemberNameIndex;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.sharding.ShardContext;
+import com.example.querydsl.repository.workload.WorkloadBulkheads;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * MEMBER 전체를 도는 배치 작업을 member.id 범위로 나눠 병렬로 처리한다.
+ *
+ * <ul>
+ *     <li>min/max id 를 조회해 범위를 파티션으로 나누고 MEMBER_BATCH_CHECKPOINT 에 기록한다.</li>
+ *     <li>파티션은 parallelism 크기의 ForkJoinPool 에서 동시에 처리된다.</li>
+ *     <li>파티션 안에서는 id 순서로 chunkSize 개씩 읽고, chunk 마다 새 트랜잭션(= 해당 스레드의 EntityManager/커넥션)에서
+ *     작업과 checkpoint 갱신을 함께 커밋한다.</li>
+ *     <li>같은 jobName 으로 다시 실행하면 완료된 파티션은 건너뛰고 나머지는 마지막 커밋 지점부터 이어서 처리한다.</li>
+ *     <li>bulk JPQL 은 Hibernate 리스너를 거치지 않으므로 chunk 마다 같은 트랜잭션에서 {@link MemberNameIndex} 로
+ *     normalized_name 과 trigram 색인을 다시 맞춘다.</li>
+ *     <li>무효화 bus 가 있으면 chunk 마다 벌크 변경 이벤트 하나를 같은 트랜잭션에서 보낸다.</li>
+ *     <li>샤딩 중에는 조건에 맞는 shard 를 차례로 처리한다. checkpoint 는 shard 마다 그 shard 의 DB 에 둔다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MemberBatchRunner {
+    private final EntityManager em;
+
+    private final JPAQueryFactory queryFactory;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final WorkloadBulkheads workloadBulkheads;
+
+    private final ObjectProvider<InvalidationBus> invalidationBus;
+
+    private final InvalidationProperties invalidationProperties;
+
+    private final MemberShards memberShards;
+
+    private final MemberNameIndex memberNameIndex;
+
+    private final int parallelism;
+
+    private final int partitions;
+
+    private final int chunkSize;
+
+    public MemberBatchRunner(EntityManager em, PlatformTransactionManager transactionManager,
+        WorkloadBulkheads workloadBulkheads, ObjectProvider<InvalidationBus> invalidationBus,
+        InvalidationProperties invalidationProperties, MemberShards memberShards, MemberNameIndex memberNameIndex,
+        @Value("${member.batch.parallelism:4}") int parallelism,
+        @Value("${member.batch.partitions:16}") int partitions,
+        @Value("${member.batch.chunk-size:1000}") int chunkSize) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workloadBulkheads = workloadBulkheads;
+        this.invalidationBus = invalidationBus;
+        this.invalidationProperties = invalidationProperties;
+        this.memberShards = memberShards;
+        this.memberNameIndex = memberNameIndex;
+        this.parallelism = parallelism;
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+    }
+
+    public MemberBatchResult run(String jobName, MemberSearchCondition condition,
+        MemberChunkProcessor processor) {
+        MemberBatchResult result = null;
+        for (Integer shard : memberShards.shardsFor(condition)) {
+            MemberBatchResult shardResult = ShardContext.call(shard, () -> runShard(jobName, condition, processor));
+            result = result == null ? shardResult : result.plus(shardResult);
+        }
+        return result;
+    }
+
+    // 같은 jobName 을 처음부터 다시 실행하려면 checkpoint 를 지운다.
+    public void reset(String jobName) {
+        memberShards.scatterAll(() -> transactionTemplate.execute(status -> queryFactory
+            .delete(memberBatchCheckpoint)
+            .where(memberBatchCheckpoint.jobName.eq(jobName))
+            .execute()));
+    }
+
+    private MemberBatchResult runShard(String jobName, MemberSearchCondition condition,
+        MemberChunkProcessor processor) {
+        List<MemberBatchCheckpoint> checkpoints = checkpoints(jobName, condition);
+        List<MemberBatchCheckpoint> pending = checkpoints.stream()
+            .filter(checkpoint -> !checkpoint.isCompleted())
+            .collect(Collectors.toList());
+
+        log.info("Batch job {}: {} partitions, {} pending", jobName, checkpoints.size(), pending.size());
+
+        // 파티션 스레드도 이 shard 의 커넥션을 쓰도록 넘겨준다.
+        Integer shard = ShardContext.current();
+        LongAdder chunks = new LongAdder();
+        LongAdder processed = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            CompletableFuture<?>[] futures = pending.stream()
+                .map(checkpoint -> CompletableFuture.runAsync(() -> ShardContext.call(shard, () -> {
+                    runPartition(checkpoint.getKey(), condition, processor, chunks, processed);
+                    return null;
+                }), pool))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException(
+                "Batch job " + jobName + " failed; rerun to resume from the last checkpoint", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        return new MemberBatchResult(checkpoints.size(), checkpoints.size() - pending.size(),
+            chunks.sum(), processed.sum());
+    }
+
+    private void runPartition(MemberBatchCheckpoint.Key key, MemberSearchCondition condition,
+        MemberChunkProcessor processor, LongAdder chunks, LongAdder processed) {
+
+        boolean completed = false;
+        while (!completed) {
+            // 커넥션은 chunk 트랜잭션 동안만 쓰므로 bulk permit 도 chunk 단위로 잡는다.
+            completed = workloadBulkheads.execute(WorkloadClass.BULK, () -> transactionTemplate.execute(status -> {
+                MemberBatchCheckpoint checkpoint = em.find(MemberBatchCheckpoint.class, key);
+
+                List<Long> ids = queryFactory
+                    .select(member.id)
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(condition.allCondition())
+                    .where(member.id.gt(checkpoint.nextAfter()), member.id.loe(checkpoint.getRangeEnd()))
+                    .orderBy(member.id.asc())
+                    .limit(chunkSize)
+                    .fetch();
+
+                if (!ids.isEmpty()) {
+                    processor.process(queryFactory, ids);
+                    memberNameIndex.refresh(ids);
+                    invalidationBus.ifAvailable(bus -> bus.publish(
+                        List.of(InvalidationEvent.bulkMembers(invalidationProperties.getNodeId()))));
+                    checkpoint.advance(ids.get(ids.size() - 1), ids.size());
+                    chunks.increment();
+                    processed.add(ids.size());
+                }
+
+                if (ids.size() < chunkSize) {
+                    checkpoint.complete();
+                    return true;
+                }
+                return false;
+            }));
+        }
+    }
+
+    // 이전 실행의 파티션이 있으면 그대로 사용해야 lastId 기준으로 이어서 처리할 수 있다.
+    private List<MemberBatchCheckpoint> checkpoints(String jobName, MemberSearchCondition condition) {
+        return transactionTemplate.execute(status -> {
+            List<MemberBatchCheckpoint> existing = queryFactory
+                .selectFrom(memberBatchCheckpoint)
+                .where(memberBatchCheckpoint.jobName.eq(jobName))
+                .orderBy(memberBatchCheckpoint.rangeStart.asc())
+                .fetch();
+            if (!existing.isEmpty()) {
+                return existing;
+            }
+
+            Tuple bounds = queryFactory
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(condition.allCondition())
+                .fetchOne();
+            Long min = bounds == null ? null : bounds.get(member.id.min());
+            Long max = bounds == null ? null : bounds.get(member.id.max());
+            if (min == null || max == null) {
+                return new ArrayList<>();
+            }
+
+            List<MemberBatchCheckpoint> created = new ArrayList<>();
+            long span = max - min + 1;
+            long size = (span + partitions - 1) / partitions;
+            for (long start = min; start <= max; start += size) {
+                MemberBatchCheckpoint checkpoint =
+                    new MemberBatchCheckpoint(jobName, start, Math.min(start + size - 1, max));
+                em.persist(checkpoint);
+                created.add(checkpoint);
+            }
+            return created;
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.querydsl.repository.batch;
+
+import static com.example.querydsl.domain.QMember.member;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * chunk 하나(조건에 맞는 member.id 목록)를 처리한다. 호출은 chunk 트랜잭션 안에서 이루어진다.
+ * name 을 바꾸거나 지워도 되고, 이름에서 나온 컬럼/색인은 MemberBatchRunner 가 같은 트랜잭션에서 맞춘다.
+ */
+@FunctionalInterface
+public interface MemberChunkProcessor {
+
+    void process(JPAQueryFactory queryFactory, List<Long> memberIds);
+
+    // queryFactory.update(member).set(..) 를 chunk 의 id 로 제한해 실행한다.
+    static MemberChunkProcessor update(UnaryOperator<JPAUpdateClause> setter) {
+        return (queryFactory, memberIds) -> setter.apply(queryFactory.update(member))
+            .where(member.id.in(memberIds))
+            .execute();
+    }
+
+    static MemberChunkProcessor delete() {
+        return (queryFactory, memberIds) -> queryFactory.delete(member)
+            .where(member.id.in(memberIds))
+            .execute();
+    }
+}
@@ -7,30 +7,109 @@ import com.example.querydsl.controller.dto.MemberSearchCondition;
 import com.example.querydsl.controller.dto.MemberTeamDto;
 import com.example.querydsl.controller.dto.QMemberTeamDto;
 import com.example.querydsl.repository.MemberRepositoryCustom;
+import com.example.querydsl.repository.jfr.RecordQueryPhases;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.sharding.UnsupportedShardQueryException;
+import com.example.querydsl.repository.support.InstrumentedQueryFactory;
+import com.example.querydsl.repository.support.QueryTimeouts;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
 import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
 
-
+/**
+ * 샤딩을 쓰면({@link MemberShards}) teamName 조건이 있는 조회는 그 팀의 shard 에서만 실행하고,
+ * 없으면 모든 shard 에서 병렬로 실행한 뒤 member.id 순(searchByOrder 는 요청한 Sort 순)으로 합친다.
+ * (count 는 shard 별 합)
+ */
+@Workload(WorkloadClass.INTERACTIVE)
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
+    private static final Comparator<MemberTeamDto> BY_MEMBER_ID = Comparator.comparing(MemberTeamDto::getMemberId);
+
+    // 샤딩 중 searchByOrder 를 합칠 수 있는 Sort 속성 (MemberTeamDto 에 값이 있는 것). H2 처럼 null 이 가장 작다.
+    private static final Map<String, Comparator<MemberTeamDto>> SORT_KEYS = Map.of(
+        "id", Comparator.comparing(MemberTeamDto::getMemberId, Comparator.nullsFirst(Comparator.naturalOrder())),
+        "name", Comparator.comparing(MemberTeamDto::getMemberName, Comparator.nullsFirst(Comparator.naturalOrder())),
+        "age", Comparator.comparing(MemberTeamDto::getAge, Comparator.nullsFirst(Comparator.naturalOrder())));
+
     private final JPAQueryFactory queryFactory;
 
-    public MemberRepositoryImpl(EntityManager em) {
-        queryFactory = new JPAQueryFactory(em);
+    private final MemberShards memberShards;
+
+    public MemberRepositoryImpl(EntityManager em, QueryTimeouts queryTimeouts, MemberShards memberShards) {
+        queryFactory = new InstrumentedQueryFactory(em, queryTimeouts);
+        this.memberShards = memberShards;
     }
 
     @Override
+    @RecordQueryPhases
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        List<Integer> shards = memberShards.shardsFor(condition);
+        if (shards.size() == 1) {
+            return memberShards.on(shards.get(0), () -> searchShard(condition));
+        }
+
+        return MemberShards.merge(memberShards.scatter(condition, () -> searchShard(condition)), BY_MEMBER_ID,
+            0, Long.MAX_VALUE);
+    }
+
+    @Override
+    @RecordQueryPhases
+    public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition,
+        Pageable pageable) {
+        List<Integer> shards = memberShards.shardsFor(condition);
+        if (shards.size() == 1) {
+            return memberShards.on(shards.get(0), () -> searchPageSimpleShard(condition, pageable));
+        }
+
+        Pageable head = head(pageable);
+        return mergePages(memberShards.scatter(condition, () -> searchPageSimpleShard(condition, head)), pageable);
+    }
+
+    @Override
+    @RecordQueryPhases
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition,
+        Pageable pageable) {
+        List<Integer> shards = memberShards.shardsFor(condition);
+        if (shards.size() == 1) {
+            return memberShards.on(shards.get(0), () -> searchPageComplexShard(condition, pageable));
+        }
+
+        Pageable head = head(pageable);
+        return mergePages(memberShards.scatter(condition, () -> searchPageComplexShard(condition, head)), pageable);
+    }
+
+    // 샤딩 중 teamName 이 없으면 shard 마다 같은 Sort(+ member.id) 로 앞부분을 읽어 그 순서로 k-way merge 한다.
+    @Override
+    @RecordQueryPhases
+    public List<MemberTeamDto> searchByOrder(MemberSearchCondition condition, Pageable pageable) {
+        List<Integer> shards = memberShards.shardsFor(condition);
+        if (shards.size() == 1) {
+            return memberShards.on(shards.get(0), () -> searchByOrderShard(condition, pageable));
+        }
+
+        Comparator<MemberTeamDto> comparator = comparatorOf(pageable.getSort());
+        Pageable head = PageRequest.of(0, head(pageable).getPageSize(), pageable.getSort().and(Sort.by("id")));
+        return MemberShards.merge(memberShards.scatter(condition, () -> searchByOrderShard(condition, head)),
+            comparator, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    private List<MemberTeamDto> searchShard(MemberSearchCondition condition) {
         return queryFactory
             .select(new QMemberTeamDto(
                 member.id,
@@ -46,11 +125,11 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 //                condition.teamNameEq(),
 //                condition.ageGoe(),
 //                condition.ageLoe()
-            ).fetch();
+            )
+            .fetch();
     }
 
-    @Override
-    public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition,
+    private Page<MemberTeamDto> searchPageSimpleShard(MemberSearchCondition condition,
         Pageable pageable) {
 
         QueryResults<MemberTeamDto> results = queryFactory
@@ -64,7 +143,10 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
             .leftJoin(member.team, team)
             .where(
                 condition.allCondition()
-            ).offset(pageable.getOffset())
+            )
+            // 페이지 경계가 요청마다 같도록 id 순서로 고정한다. (MemberPagePrefetcher 의 keyset 조회와 같은 순서)
+            .orderBy(member.id.asc())
+            .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
             .fetchResults();
 
@@ -74,8 +156,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         return new PageImpl<>(content, pageable, total);
     }
 
-    @Override
-    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition,
+    private Page<MemberTeamDto> searchPageComplexShard(MemberSearchCondition condition,
         Pageable pageable) {
 
         List<MemberTeamDto> content = queryFactory
@@ -90,6 +171,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
             .where(
                 condition.allCondition()
             )
+            .orderBy(member.id.asc())
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
             .fetch();
@@ -112,8 +194,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     }
 
     @SuppressWarnings("unchecked")
-    @Override
-    public List<MemberTeamDto> searchByOrder(MemberSearchCondition condition, Pageable pageable) {
+    private List<MemberTeamDto> searchByOrderShard(MemberSearchCondition condition, Pageable pageable) {
         JPAQuery<MemberTeamDto> query = queryFactory
             .select(new QMemberTeamDto(
                 member.id,
@@ -143,4 +224,32 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         }
         return query.fetch();
     }
+
+    // 요청한 페이지가 어느 shard 에 몰려 있어도 되도록 shard 마다 첫 row 부터 offset + size 개를 읽는다.
+    private static Pageable head(Pageable pageable) {
+        return PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()));
+    }
+
+    private static Page<MemberTeamDto> mergePages(List<Page<MemberTeamDto>> pages, Pageable pageable) {
+        List<List<MemberTeamDto>> contents = pages.stream().map(Page::getContent).collect(Collectors.toList());
+        List<MemberTeamDto> content = MemberShards.merge(contents, BY_MEMBER_ID, pageable.getOffset(),
+            pageable.getPageSize());
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // searchByOrderShard 가 member 경로로 정렬하는 것과 같은 순서
+    private static Comparator<MemberTeamDto> comparatorOf(Sort sort) {
+        Comparator<MemberTeamDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<MemberTeamDto> next = SORT_KEYS.get(order.getProperty());
+            if (next == null) {
+                throw new UnsupportedShardQueryException("Cannot merge sharded results sorted by "
+                    + order.getProperty() + ", allowed: " + SORT_KEYS.keySet() + " or add a teamName condition");
+            }
+            next = order.isAscending() ? next : next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? BY_MEMBER_ID : comparator.thenComparing(BY_MEMBER_ID);
+    }
 }
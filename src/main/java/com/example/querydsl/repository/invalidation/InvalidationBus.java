@@ -0,0 +1,15 @@
+package com.example.querydsl.repository.invalidation;
+
+import java.util.List;
+
+/**
+ * Member/Team 변경을 다른 노드에 알린다. 기본 구현은 {@link OutboxInvalidationBus}.
+ *
+ * <p>publish 는 변경한 트랜잭션 안에서 commit 직전에 호출된다. outbox 처럼 같은 트랜잭션에 쓰면 commit 된 변경만 전달되고,
+ * 외부 broker 로 보내는 구현은 TransactionSynchronization.afterCommit 에서 보내면 된다.
+ * 받은 이벤트는 모든 노드(변경한 노드 포함)의 {@link InvalidationListener} 에 전달해야 한다.
+ */
+public interface InvalidationBus {
+
+    void publish(List<InvalidationEvent> events);
+}
@@ -0,0 +1,53 @@
+package com.example.querydsl.repository.invalidation;
+
+import com.example.querydsl.domain.CacheInvalidation.EntityType;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Value;
+
+/**
+ * Member/Team 하나가 바뀌었다는 알림. 캐시는 이것으로 지울 항목을 고른다.
+ */
+@Value
+public class InvalidationEvent {
+    EntityType entityType;
+    // 벌크 변경이면 null
+    Long entityId;
+    Long teamId;
+    Long previousTeamId;
+    boolean teamsKnown;
+    // 변경한 노드 (InvalidationProperties.nodeId)
+    String nodeId;
+    Instant createdAt;
+
+    public static InvalidationEvent member(String nodeId, Long memberId, Long teamId, Long previousTeamId) {
+        return new InvalidationEvent(EntityType.MEMBER, memberId, teamId, previousTeamId, true, nodeId,
+            Instant.now());
+    }
+
+    // 어느 팀인지 모르는 경우 (detached 엔티티 update 등)
+    public static InvalidationEvent memberInUnknownTeam(String nodeId, Long memberId) {
+        return new InvalidationEvent(EntityType.MEMBER, memberId, null, null, false, nodeId, Instant.now());
+    }
+
+    // JPQL/JDBC 벌크 변경. member 마다 보내지 않고 chunk/flush 마다 하나만 보낸다.
+    public static InvalidationEvent bulkMembers(String nodeId) {
+        return memberInUnknownTeam(nodeId, null);
+    }
+
+    public static InvalidationEvent team(String nodeId, Long teamId) {
+        return new InvalidationEvent(EntityType.TEAM, teamId, teamId, null, true, nodeId, Instant.now());
+    }
+
+    public Set<Long> teamIds() {
+        Set<Long> teamIds = new HashSet<>();
+        if (teamId != null) {
+            teamIds.add(teamId);
+        }
+        if (previousTeamId != null) {
+            teamIds.add(previousTeamId);
+        }
+        return teamIds;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.querydsl.repository.invalidation;
+
+import com.example.querydsl.config.InvalidationProperties;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.ArrayUtils;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member/Team 의 insert/update/delete 를 트랜잭션(세션) 단위로 모았다가 commit 직전에(flush 이후)
+ * {@link InvalidationBus} 로 한 번에 보낸다. InvalidationBus 빈이 없으면 등록하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvalidationEventListener implements PostInsertEventListener,
+    PostUpdateEventListener, PostDeleteEventListener {
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient ObjectProvider<InvalidationBus> invalidationBus;
+
+    private final transient InvalidationProperties properties;
+
+    private final transient Map<EventSource, List<InvalidationEvent>> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        if (invalidationBus.getIfAvailable() == null) {
+            return;
+        }
+
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            add(event.getSession(), InvalidationEvent.member(properties.getNodeId(), member.getId(),
+                teamId(member.getTeam()), null));
+        } else if (entity instanceof Team) {
+            add(event.getSession(), InvalidationEvent.team(properties.getNodeId(), ((Team) entity).getId()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            if (event.getOldState() == null) {
+                add(event.getSession(), InvalidationEvent.memberInUnknownTeam(properties.getNodeId(), member.getId()));
+                return;
+            }
+
+            int teamIndex = ArrayUtils.indexOf(event.getPersister().getPropertyNames(), "team");
+            add(event.getSession(), InvalidationEvent.member(properties.getNodeId(), member.getId(),
+                teamId(member.getTeam()), teamId((Team) event.getOldState()[teamIndex])));
+        } else if (entity instanceof Team) {
+            add(event.getSession(), InvalidationEvent.team(properties.getNodeId(), ((Team) entity).getId()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            add(event.getSession(), InvalidationEvent.member(properties.getNodeId(), (Long) event.getId(),
+                teamId(member.getTeam()), null));
+        } else if (entity instanceof Team) {
+            add(event.getSession(), InvalidationEvent.team(properties.getNodeId(), (Long) event.getId()));
+        }
+    }
+
+    // Hibernate 5 의 오타 이름 (deprecated). 같은 답을 하도록 아래로 넘긴다.
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 세션에서 처음 변경이 생기면 commit 직전 전송과 (rollback 포함) 완료 후 정리를 등록한다.
+    private void add(EventSource session, InvalidationEvent event) {
+        pending.computeIfAbsent(session, key -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> {
+                List<InvalidationEvent> events = pending.remove(session);
+                if (events != null) {
+                    invalidationBus.getObject().publish(events);
+                }
+            });
+            session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completing) -> pending.remove(session));
+            return new ArrayList<>();
+        }).add(event);
+    }
+
+    // 프록시를 초기화하지 않고 id 를 꺼낸다.
+    private static Long teamId(Team team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team.getId();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.querydsl.repository.invalidation;
+
+import java.util.List;
+
+/**
+ * 변경 이벤트를 받아 캐시 항목을 지운다. 변경한 노드의 이벤트도 전달되므로 필요하면 nodeId 로 거른다.
+ * 같은 이벤트를 두 번 받아도 문제가 없어야 한다.
+ */
+@FunctionalInterface
+public interface InvalidationListener {
+
+    void onInvalidation(List<InvalidationEvent> events);
+}
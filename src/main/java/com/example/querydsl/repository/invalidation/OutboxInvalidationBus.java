@@ -0,0 +1,227 @@
+package com.example.querydsl.repository.invalidation;
+
+import com.example.querydsl.config.InvalidationProperties;
+import com.example.querydsl.domain.CacheInvalidation.EntityType;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * CACHE_INVALIDATION 테이블을 transactional outbox 로 쓰는 {@link InvalidationBus}. 외부 broker 가 필요 없다.
+ *
+ * <ul>
+ *     <li>publish: 변경한 트랜잭션의 커넥션으로 한 번의 JDBC batch insert. 변경과 함께 commit/rollback 된다.</li>
+ *     <li>poll-interval 마다 shard 별로 마지막으로 읽은 id 다음부터 batch-size 개를 읽어 모든 {@link InvalidationListener}
+ *     에 한 번에 전달한다. 노드마다 자기 위치를 메모리에 두고, 기동 시에는 그때의 마지막 id 부터 읽는다.</li>
+ *     <li>전달도 이벤트를 읽은 shard 에서 한다. 이벤트의 team 은 그 shard 에 있으므로 listener 의 재집계가 그 shard 를 읽는다.</li>
+ *     <li>id 가 비어 있으면 그 앞의 트랜잭션이 아직 commit 되지 않았을 수 있으므로 gap-timeout 동안은 거기서 멈춘다.
+ *     그 뒤에는 건너뛰되, 건너뛴 id 는 retention 동안 poll 마다 다시 찾아 늦게 commit 된 행도 전달한다.</li>
+ *     <li>retention 보다 오래된 행은 지운다.</li>
+ * </ul>
+ *
+ * <p>metrics: cache.invalidation.published, cache.invalidation.batch (poll 한 번에 전달한 이벤트 수),
+ * cache.invalidation.lag{origin=local|remote} (기록부터 전달까지, 노드 간 시계 차이가 포함된다),
+ * cache.invalidation.gap.skipped (gap-timeout 이 지나 건너뛴 id 수), cache.invalidation.gap.recovered (그중 늦게 읽은 행 수)
+ */
+@Slf4j
+public class OutboxInvalidationBus implements InvalidationBus {
+    private static final String INSERT_SQL = "insert into CACHE_INVALIDATION"
+        + " (entity_type, entity_id, team_id, previous_team_id, teams_known, node_id, created_at)"
+        + " values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "select id, entity_type, entity_id, team_id, previous_team_id,"
+        + " teams_known, node_id, created_at from CACHE_INVALIDATION where id > ? order by id limit ?";
+
+    private static final String RESCAN_SQL = "select id, entity_type, entity_id, team_id, previous_team_id,"
+        + " teams_known, node_id, created_at from CACHE_INVALIDATION where id in (%s) order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MemberShards memberShards;
+
+    private final ObjectProvider<InvalidationListener> listeners;
+
+    private final InvalidationProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    // shard 별 마지막으로 읽은 id, 아직 모르면 null
+    private final Long[] cursors;
+
+    // shard 별로 건너뛴 id 와 건너뛴 시각
+    private final List<NavigableMap<Long, Instant>> skipped;
+
+    private final Counter published;
+
+    private final Counter gapSkipped;
+
+    private final Counter gapRecovered;
+
+    private final DistributionSummary batch;
+
+    public OutboxInvalidationBus(JdbcTemplate jdbcTemplate, MemberShards memberShards,
+        ObjectProvider<InvalidationListener> listeners, InvalidationProperties properties,
+        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memberShards = memberShards;
+        this.listeners = listeners;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.cursors = new Long[memberShards.count()];
+        this.skipped = IntStream.range(0, memberShards.count())
+            .mapToObj(shard -> new TreeMap<Long, Instant>())
+            .collect(Collectors.toList());
+
+        this.published = meterRegistry.counter("cache.invalidation.published");
+        this.gapSkipped = meterRegistry.counter("cache.invalidation.gap.skipped");
+        this.gapRecovered = meterRegistry.counter("cache.invalidation.gap.recovered");
+        this.batch = meterRegistry.summary("cache.invalidation.batch");
+    }
+
+    @Override
+    public void publish(List<InvalidationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, events.stream()
+            .map(event -> new Object[]{event.getEntityType().name(), event.getEntityId(), event.getTeamId(),
+                event.getPreviousTeamId(), event.isTeamsKnown(), event.getNodeId(),
+                Timestamp.from(event.getCreatedAt())})
+            .collect(Collectors.toList()));
+        published.increment(events.size());
+    }
+
+    // publish 는 변경한 (interactive) 트랜잭션 안에서 실행되므로 bulk 로 묶지 않는다.
+    @Workload(WorkloadClass.BULK)
+    @Scheduled(fixedDelayString = "${invalidation.poll-interval:PT1S}")
+    public synchronized void poll() {
+        for (int shard = 0; shard < cursors.length; shard++) {
+            int current = shard;
+            memberShards.on(shard, () -> {
+                List<InvalidationEvent> events = read(current);
+                if (!events.isEmpty()) {
+                    deliver(events);
+                }
+                return events.size();
+            });
+        }
+    }
+
+    @Workload(WorkloadClass.BULK)
+    @Scheduled(fixedDelayString = "${invalidation.retention:PT10M}")
+    public void purge() {
+        Timestamp before = Timestamp.from(Instant.now().minus(properties.getRetention()));
+        for (int shard = 0; shard < cursors.length; shard++) {
+            memberShards.on(shard, () -> jdbcTemplate.update("delete from CACHE_INVALIDATION where created_at < ?",
+                before));
+        }
+    }
+
+    private List<InvalidationEvent> read(int shard) {
+        if (cursors[shard] == null) {
+            cursors[shard] = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from CACHE_INVALIDATION",
+                Long.class);
+            return List.of();
+        }
+
+        List<InvalidationEvent> events = rescan(skipped.get(shard));
+
+        List<Row> rows = jdbcTemplate.query(SELECT_SQL, OutboxInvalidationBus::row, cursors[shard],
+            properties.getBatchSize());
+        Instant now = Instant.now();
+        Instant settled = now.minus(properties.getGapTimeout());
+
+        long cursor = cursors[shard];
+        for (Row row : rows) {
+            if (row.id != cursor + 1) {
+                // 앞 id 의 트랜잭션이 아직 commit 되지 않았을 수 있다.
+                if (row.event.getCreatedAt().isAfter(settled)) {
+                    break;
+                }
+                for (long id = cursor + 1; id < row.id; id++) {
+                    skipped.get(shard).put(id, now);
+                }
+                gapSkipped.increment(row.id - cursor - 1);
+            }
+            events.add(row.event);
+            cursor = row.id;
+        }
+        cursors[shard] = cursor;
+        return events;
+    }
+
+    // gap-timeout 보다 늦게 commit 된 행을 찾는다. retention 이 지난 id 는 rollback 된 것으로 보고 잊는다.
+    private List<InvalidationEvent> rescan(NavigableMap<Long, Instant> ids) {
+        Instant expired = Instant.now().minus(properties.getRetention());
+        ids.values().removeIf(skippedAt -> skippedAt.isBefore(expired));
+
+        List<InvalidationEvent> events = new ArrayList<>();
+        for (List<Long> chunk : Lists.partition(new ArrayList<>(ids.keySet()), properties.getBatchSize())) {
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            for (Row row : jdbcTemplate.query(String.format(RESCAN_SQL, placeholders), OutboxInvalidationBus::row,
+                chunk.toArray())) {
+                ids.remove(row.id);
+                events.add(row.event);
+                gapRecovered.increment();
+            }
+        }
+        return events;
+    }
+
+    private void deliver(List<InvalidationEvent> events) {
+        Instant now = Instant.now();
+        batch.record(events.size());
+        for (InvalidationEvent event : events) {
+            String origin = properties.getNodeId().equals(event.getNodeId()) ? "local" : "remote";
+            meterRegistry.timer("cache.invalidation.lag", "origin", origin)
+                .record(Duration.between(event.getCreatedAt(), now));
+        }
+
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onInvalidation(events);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed for {} events", listener, events.size(), e);
+            }
+        });
+    }
+
+    private static Row row(ResultSet rs, int rowNum) throws SQLException {
+        return new Row(rs.getLong("id"), new InvalidationEvent(
+            EntityType.valueOf(rs.getString("entity_type")),
+            rs.getObject("entity_id", Long.class),
+            rs.getObject("team_id", Long.class),
+            rs.getObject("previous_team_id", Long.class),
+            rs.getBoolean("teams_known"),
+            rs.getString("node_id"),
+            rs.getTimestamp("created_at").toInstant()));
+    }
+
+    @AllArgsConstructor
+    private static class Row {
+        private final long id;
+        private final InvalidationEvent event;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.querydsl.repository.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.example.querydsl.JdbcExecute")
+@Label("JDBC Execute")
+@Description("Statement.execute*. repository 밖에서 실행된 SQL 도 기록된다. (method 없음)")
+@Category({"Querydsl", "Repository"})
+@StackTrace(false)
+@Threshold("1 ms")
+class JdbcExecuteEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("SQL Hash")
+    int sqlHash;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,91 @@
+package com.example.querydsl.repository.jfr;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * p6spy 이벤트로 JdbcExecute / ResultMapping JFR 이벤트를 기록한다. 실행 중인 {@link QueryPhases} 가 있으면
+ * 그 method 를 붙이고 번역 단계를 끝낸다.
+ *
+ * <p>sqlHash 는 값이 바인딩되지 않은 SQL 의 hashCode 라서 같은 모양의 쿼리끼리 묶인다.
+ */
+public class JfrJdbcEventListener extends SimpleJdbcEventListener {
+    // 닫히지 않은 ResultSet 이 쌓이지 않도록 스레드당 열려 있는 매핑 이벤트 수를 제한한다.
+    private static final int MAX_OPEN_RESULT_SETS = 8;
+
+    private final ThreadLocal<JdbcExecuteEvent> executing = new ThreadLocal<>();
+
+    private final ThreadLocal<Deque<ResultMappingEvent>> mapping = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        int sqlHash = sqlHash(statementInformation);
+        QueryPhases.beforeExecute(sqlHash);
+
+        JdbcExecuteEvent event = new JdbcExecuteEvent();
+        event.method = QueryPhases.currentMethod();
+        event.sqlHash = sqlHash;
+        event.begin();
+        executing.set(event);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos,
+        SQLException e) {
+        JdbcExecuteEvent event = executing.get();
+        if (event == null) {
+            return;
+        }
+        executing.remove();
+        event.success = e == null;
+        event.commit();
+    }
+
+    // executeQuery 가 끝난 시점부터 ResultSet 이 닫힐 때까지를 결과 매핑으로 본다.
+    @Override
+    public void onAfterExecuteQuery(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+        SQLException e) {
+        super.onAfterExecuteQuery(statementInformation, timeElapsedNanos, e);
+        if (e != null) {
+            return;
+        }
+
+        ResultMappingEvent event = new ResultMappingEvent();
+        event.method = QueryPhases.currentMethod();
+        event.sqlHash = sqlHash(statementInformation);
+        event.begin();
+
+        Deque<ResultMappingEvent> open = mapping.get();
+        if (open.size() == MAX_OPEN_RESULT_SETS) {
+            open.removeLast();
+        }
+        open.push(event);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+        boolean hasNext, SQLException e) {
+        ResultMappingEvent event = mapping.get().peek();
+        if (event != null && hasNext) {
+            event.rowCount++;
+        }
+    }
+
+    @Override
+    public void onAfterResultSetClose(ResultSetInformation resultSetInformation, SQLException e) {
+        ResultMappingEvent event = mapping.get().poll();
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    private static int sqlHash(StatementInformation statementInformation) {
+        String sql = statementInformation.getSql();
+        return sql == null ? 0 : sql.hashCode();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.querydsl.repository.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.example.querydsl.MemberQuery")
+@Label("Member Query")
+@Description("repository 조회 한 번 전체. (QueryPhases)")
+@Category({"Querydsl", "Repository"})
+@StackTrace(false)
+@Threshold("10 ms")
+class MemberQueryEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Condition Shape")
+    @Description("사용된 검색 조건 이름 (값 제외)")
+    String conditionShape;
+
+    @Label("SQL Hash")
+    @Description("처음 실행한 SQL 의 hash (JdbcExecute 와 같은 값)")
+    int sqlHash;
+
+    @Label("Row Count")
+    long rowCount;
+}
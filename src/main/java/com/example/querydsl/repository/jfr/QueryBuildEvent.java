@@ -0,0 +1,20 @@
+package com.example.querydsl.repository.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.example.querydsl.QueryBuild")
+@Label("Query Build")
+@Description("Querydsl 식 조립 (select/where/hint 등)")
+@Category({"Querydsl", "Repository"})
+@StackTrace(false)
+@Threshold("1 ms")
+class QueryBuildEvent extends Event {
+    @Label("Method")
+    String method;
+}
@@ -0,0 +1,159 @@
+package com.example.querydsl.repository.jfr;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.controller.dto.MemberTeamColumns;
+import java.util.Collection;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Page;
+
+/**
+ * repository 조회 한 번을 단계별 JFR 이벤트로 기록한다.
+ *
+ * <pre>
+ * MemberQuery      |------------------------------------|  method, conditionShape, sqlHash, rowCount
+ *   QueryBuild     |----|                                  Querydsl 식 조립
+ *   QueryTranslate      |-----|                            JPQL → SQL, 파라미터 바인딩 (첫 JDBC 실행까지)
+ *   JdbcExecute               |------|                     (JfrJdbcEventListener)
+ *   ResultMapping                    |--------|            ResultSet 을 읽어 DTO/엔티티로 변환 (JfrJdbcEventListener)
+ * </pre>
+ *
+ * <p>메서드에 {@link RecordQueryPhases} 를 붙이면 호출 전체가 MemberQuery 가 되고, 조립이 끝나는 시점은
+ * InstrumentedQueryFactory 가 만든 쿼리가 JPA Query 를 만들 때 ({@link #beforeCreateQuery()}) 다.
+ * 메서드 본문은 그대로 둔다.
+ *
+ * <p>JDBC 단계는 p6spy 리스너가 기록하므로 decorator.datasource.enabled=false 면 MemberQuery, QueryBuild 만 남는다.
+ * JFR 기록 중이 아니면 이벤트 객체 생성 외의 비용은 없다.
+ */
+public final class QueryPhases implements AutoCloseable {
+    private static final ThreadLocal<QueryPhases> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+
+    private final MemberSearchCondition condition;
+
+    private final QueryPhases outer;
+
+    private final MemberQueryEvent query = new MemberQueryEvent();
+
+    private final QueryBuildEvent build = new QueryBuildEvent();
+
+    private boolean built;
+
+    private QueryTranslateEvent translate;
+
+    private QueryPhases(String method, MemberSearchCondition condition) {
+        this.method = method;
+        this.condition = condition;
+        this.outer = CURRENT.get();
+
+        if (query.isEnabled()) {
+            query.method = method;
+            query.conditionShape = condition == null ? null : condition.shape();
+        }
+        build.method = method;
+        query.begin();
+        build.begin();
+        CURRENT.set(this);
+    }
+
+    public static QueryPhases start(String method, MemberSearchCondition condition) {
+        return new QueryPhases(method, condition);
+    }
+
+    public static QueryPhases start(String method) {
+        return new QueryPhases(method, null);
+    }
+
+    // task 전체를 MemberQuery 로 기록하고, 결과가 목록/페이지면 그 크기를 rowCount 로 남긴다.
+    public static <T> T record(String method, MemberSearchCondition condition, Supplier<T> task) {
+        try (QueryPhases phases = start(method, condition)) {
+            T result = task.get();
+            phases.rows(rowCountOf(result));
+            return result;
+        }
+    }
+
+    // 다른 스레드(shard 작업 등)에서 실행할 task 도 지금 기록 중인 method 로 기록되게 한다.
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        QueryPhases current = CURRENT.get();
+        if (current == null) {
+            return task;
+        }
+        return () -> record(current.method, current.condition, task);
+    }
+
+    // 식 조립이 끝나고 fetch 하기 직전에 호출한다. 여러 번 fetch 하면(chunk 등) 매번 호출해 번역 단계를 다시 잰다.
+    public void built() {
+        if (!built) {
+            build.commit();
+            built = true;
+        }
+
+        translate = new QueryTranslateEvent();
+        translate.method = method;
+        translate.begin();
+    }
+
+    public <T extends Collection<?>> T rows(T result) {
+        rows(result.size());
+        return result;
+    }
+
+    public void rows(long rowCount) {
+        query.rowCount = rowCount;
+    }
+
+    @Override
+    public void close() {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+        query.commit();
+    }
+
+    public static String currentMethod() {
+        QueryPhases current = CURRENT.get();
+        return current == null ? null : current.method;
+    }
+
+    // JPA Query 를 만들기 직전. (InstrumentedQueryFactory)
+    public static void beforeCreateQuery() {
+        QueryPhases current = CURRENT.get();
+        if (current != null) {
+            current.built();
+        }
+    }
+
+    // 첫 JDBC 실행 직전에 번역 단계를 끝낸다. 실행을 보지 못하고 끝난 번역 단계는 버린다.
+    static void beforeExecute(int sqlHash) {
+        QueryPhases current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        // 쿼리를 여러 번 실행하면(chunk, count 등) 첫 SQL 로 묶는다.
+        if (current.query.sqlHash == 0) {
+            current.query.sqlHash = sqlHash;
+        }
+        if (current.translate == null) {
+            return;
+        }
+        current.translate.sqlHash = sqlHash;
+        current.translate.commit();
+        current.translate = null;
+    }
+
+    private static long rowCountOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Page) {
+            return ((Page<?>) result).getNumberOfElements();
+        }
+        if (result instanceof MemberTeamColumns) {
+            return ((MemberTeamColumns) result).size();
+        }
+        return 0;
+    }
+}
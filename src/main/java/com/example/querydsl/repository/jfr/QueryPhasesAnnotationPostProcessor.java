@@ -0,0 +1,55 @@
+package com.example.querydsl.repository.jfr;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+/**
+ * {@link RecordQueryPhases} 가 붙은 메서드를 프록시로 감싸 {@link QueryPhases#record} 안에서 실행한다.
+ * (WorkloadAnnotationPostProcessor 와 같은 방식)
+ */
+public class QueryPhasesAnnotationPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public QueryPhasesAnnotationPostProcessor() {
+        MethodInterceptor interceptor = new MethodInterceptor() {
+            @Override
+            public Object invoke(MethodInvocation invocation) {
+                return QueryPhases.record(methodOf(invocation), conditionOf(invocation), () -> proceed(invocation));
+            }
+        };
+
+        this.advisor = new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, RecordQueryPhases.class, true), interceptor);
+        setProxyTargetClass(true);
+    }
+
+    private static String methodOf(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() == null
+            ? invocation.getMethod().getDeclaringClass()
+            : AopUtils.getTargetClass(invocation.getThis());
+        return targetClass.getSimpleName() + "." + invocation.getMethod().getName();
+    }
+
+    private static MemberSearchCondition conditionOf(MethodInvocation invocation) {
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof MemberSearchCondition) {
+                return (MemberSearchCondition) argument;
+            }
+        }
+        return null;
+    }
+
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.querydsl.repository.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.example.querydsl.QueryTranslate")
+@Label("Query Translate")
+@Description("조립이 끝난 뒤 첫 JDBC 실행까지. JPQL 직렬화, HQL → SQL 변환(plan cache), 파라미터 바인딩")
+@Category({"Querydsl", "Repository"})
+@StackTrace(false)
+@Threshold("1 ms")
+class QueryTranslateEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("SQL Hash")
+    int sqlHash;
+}
@@ -0,0 +1,19 @@
+package com.example.querydsl.repository.jfr;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메서드 호출을 {@link QueryPhases} 로 기록한다. method 는 "클래스이름.메서드이름",
+ * conditionShape 는 MemberSearchCondition 인자에서 가져온다.
+ *
+ * @see QueryPhasesAnnotationPostProcessor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RecordQueryPhases {
+}
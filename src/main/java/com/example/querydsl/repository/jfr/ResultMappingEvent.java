@@ -0,0 +1,26 @@
+package com.example.querydsl.repository.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.example.querydsl.ResultMapping")
+@Label("Result Mapping")
+@Description("executeQuery 이후 ResultSet 이 닫힐 때까지. row 를 읽어 DTO/엔티티로 만드는 시간")
+@Category({"Querydsl", "Repository"})
+@StackTrace(false)
+@Threshold("1 ms")
+class ResultMappingEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("SQL Hash")
+    int sqlHash;
+
+    @Label("Row Count")
+    long rowCount;
+}
@@ -0,0 +1,78 @@
+package com.example.querydsl.repository.loader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * DataLoader 방식으로 id 조회를 모았다가 {@link #dispatch()} 시점에 한 번의 IN 조회로 처리한다.
+ * 한 번 요청한 id 는 결과(없으면 null)를 기억하므로 같은 loader 안에서는 다시 조회하지 않는다.
+ *
+ * <p>요청 하나(한 스레드)에서 쓰도록 만든 것이라 thread-safe 하지 않다.
+ */
+public class BatchLoader<V> {
+    private final Function<Collection<Long>, Map<Long, V>> batchFunction;
+
+    private final Map<Long, CompletableFuture<V>> futures = new HashMap<>();
+
+    private final Set<Long> queue = new LinkedHashSet<>();
+
+    private int dispatchCount;
+
+    public BatchLoader(Function<Collection<Long>, Map<Long, V>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    public CompletableFuture<V> load(Long id) {
+        return futures.computeIfAbsent(id, key -> {
+            queue.add(key);
+            return new CompletableFuture<>();
+        });
+    }
+
+    public CompletableFuture<List<V>> loadMany(Collection<Long> ids) {
+        List<CompletableFuture<V>> loads = ids.stream().map(this::load).collect(Collectors.toList());
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> loads.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    // load 후 바로 결과가 필요할 때: 그동안 모인 다른 id 도 함께 조회된다.
+    public V get(Long id) {
+        CompletableFuture<V> future = load(id);
+        if (!future.isDone()) {
+            dispatch();
+        }
+        return future.join();
+    }
+
+    public void dispatch() {
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(queue);
+        queue.clear();
+        dispatchCount++;
+
+        Map<Long, V> result;
+        try {
+            result = batchFunction.apply(ids);
+        } catch (RuntimeException e) {
+            // 실패한 id 는 기억하지 않아 다음 load 에서 다시 조회할 수 있게 한다.
+            ids.forEach(id -> futures.remove(id).completeExceptionally(e));
+            throw e;
+        }
+        ids.forEach(id -> futures.get(id).complete(result.get(id)));
+    }
+
+    public int dispatchCount() {
+        return dispatchCount;
+    }
+}
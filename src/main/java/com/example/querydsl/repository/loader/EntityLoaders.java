@@ -0,0 +1,99 @@
+package com.example.querydsl.repository.loader;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.MemberJpaRepository;
+import com.example.querydsl.repository.TeamRepository;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * 요청 단위로 Member/Team id 조회를 모아 엔티티 타입별로 한 번의 IN 쿼리로 가져온다.
+ *
+ * <pre>
+ * members.forEach(id -> loaders.members().load(id).thenAccept(...));
+ * loaders.dispatchAll();
+ * </pre>
+ *
+ * <p>샤딩 중에는 id 를 shard 별로 나눠 그 shard 에서만 조회한다.
+ */
+@Component
+@RequestScope
+public class EntityLoaders {
+    private final BatchLoader<Member> members;
+
+    private final BatchLoader<Team> teams;
+
+    public EntityLoaders(MemberJpaRepository memberJpaRepository, TeamRepository teamRepository,
+        MemberShards memberShards) {
+        this.members = new BatchLoader<>(ids -> byId(memberJpaRepository.findMembersById(ids), Member::getId));
+        this.teams = new BatchLoader<>(ids -> byId(
+            MemberShards.concat(memberShards.scatterByIds(ids, teamRepository::findAllById)), Team::getId));
+    }
+
+    public BatchLoader<Member> members() {
+        return members;
+    }
+
+    public BatchLoader<Team> teams() {
+        return teams;
+    }
+
+    // Member.getTeam() 대신 사용한다. 프록시의 id 만 읽으므로 팀을 하나씩 초기화하지 않는다.
+    public CompletableFuture<Team> teamOf(Member member) {
+        return member.getTeam() == null
+            ? CompletableFuture.completedFuture(null)
+            : teams.load(member.getTeam().getId());
+    }
+
+    // 완료된 조회의 콜백이 다른 loader 에 새 id 를 넣을 수 있으므로 더 이상 대기 중인 id 가 없을 때까지 반복한다.
+    // 한 loader 가 실패해도 나머지 loader 는 마저 dispatch 하고, 실패는 모아서 마지막에 던진다.
+    // 실패한 loader 는 이번 호출에서 다시 dispatch 하지 않는다.
+    @Workload(WorkloadClass.INTERACTIVE)
+    public void dispatchAll() {
+        List<BatchLoader<?>> loaders = List.of(members, teams);
+        Set<BatchLoader<?>> failed = new HashSet<>();
+        RuntimeException failure = null;
+        boolean dispatched;
+        do {
+            dispatched = false;
+            for (BatchLoader<?> loader : loaders) {
+                if (failed.contains(loader)) {
+                    continue;
+                }
+                int before = loader.dispatchCount();
+                try {
+                    loader.dispatch();
+                } catch (RuntimeException e) {
+                    failed.add(loader);
+                    if (failure == null) {
+                        failure = e;
+                    } else if (failure != e) {
+                        failure.addSuppressed(e);
+                    }
+                }
+                dispatched |= loader.dispatchCount() != before;
+            }
+        } while (dispatched);
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static <V> Map<Long, V> byId(Iterable<V> entities, Function<V, Long> idGetter) {
+        return StreamSupport.stream(entities.spliterator(), false)
+            .collect(Collectors.toMap(idGetter, Function.identity()));
+    }
+}
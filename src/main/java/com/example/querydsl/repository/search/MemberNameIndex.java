@@ -0,0 +1,112 @@
+package com.example.querydsl.repository.search;
+
+import static com.example.querydsl.domain.QMember.member;
+import static com.example.querydsl.domain.QMemberNameTrigram.memberNameTrigram;
+
+import com.example.querydsl.domain.MemberNameTrigram;
+import com.example.querydsl.domain.Names;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate 리스너를 거치지 않은 변경(bulk JPQL update/delete) 뒤에 normalized_name 과 MEMBER_NAME_TRIGRAM 을
+ * 현재 name 에 다시 맞춘다. 호출한 트랜잭션(같은 커넥션)에서 실행되고, 이미 맞는 member 는 쓰지 않는다.
+ */
+@Component
+public class MemberNameIndex {
+    private static final String UPDATE_NORMALIZED_NAME_SQL = "update MEMBER set normalized_name = ? where id = ?";
+
+    private final EntityManager em;
+
+    private final JPAQueryFactory queryFactory;
+
+    public MemberNameIndex(EntityManager em) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    // 바로잡은 member 수를 반환한다. 지워진 member 의 trigram 도 지운다.
+    public int refresh(Collection<Long> memberIds) {
+        Map<Long, Set<String>> indexed = new HashMap<>();
+        for (Tuple row : queryFactory
+            .select(memberNameTrigram.memberId, memberNameTrigram.trigram)
+            .from(memberNameTrigram)
+            .where(memberNameTrigram.memberId.in(memberIds))
+            .fetch()) {
+            indexed.computeIfAbsent(row.get(memberNameTrigram.memberId), id -> new HashSet<>())
+                .add(row.get(memberNameTrigram.trigram));
+        }
+
+        Map<Long, String> renormalize = new HashMap<>();
+        Map<Long, String> reindex = new HashMap<>();
+        Set<Long> unindex = new HashSet<>(indexed.keySet());
+        for (Tuple row : queryFactory
+            .select(member.id, member.name, member.normalizedName)
+            .from(member)
+            .where(member.id.in(memberIds))
+            .fetch()) {
+            Long memberId = row.get(member.id);
+            String name = row.get(member.name);
+            if (!Objects.equals(Names.normalize(name), row.get(member.normalizedName))) {
+                renormalize.put(memberId, Names.normalize(name));
+            }
+            if (MemberNameTrigram.trigrams(name).equals(indexed.getOrDefault(memberId, Set.of()))) {
+                unindex.remove(memberId);
+            } else {
+                reindex.put(memberId, name);
+                unindex.add(memberId);
+            }
+        }
+
+        if (renormalize.isEmpty() && unindex.isEmpty()) {
+            return 0;
+        }
+        write(renormalize, unindex, reindex);
+
+        Set<Long> refreshed = new HashSet<>(renormalize.keySet());
+        refreshed.addAll(unindex);
+        return refreshed.size();
+    }
+
+    private void write(Map<Long, String> renormalize, Set<Long> unindex, Map<Long, String> reindex) {
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_NORMALIZED_NAME_SQL)) {
+                for (Map.Entry<Long, String> entry : renormalize.entrySet()) {
+                    statement.setString(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                MemberNameTrigramEventListener.DELETE_SQL)) {
+                for (Long memberId : unindex) {
+                    statement.setLong(1, memberId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                MemberNameTrigramEventListener.INSERT_SQL)) {
+                for (Map.Entry<Long, String> entry : reindex.entrySet()) {
+                    for (String trigram : MemberNameTrigram.trigrams(entry.getValue())) {
+                        statement.setString(1, trigram);
+                        statement.setLong(2, entry.getKey());
+                        statement.addBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.querydsl.repository.search;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.MemberNameTrigram;
+import java.sql.PreparedStatement;
+import java.util.Objects;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.ArrayUtils;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member insert/이름 변경/delete 시 MEMBER_NAME_TRIGRAM 을 같은 트랜잭션(같은 커넥션)에서 갱신한다.
+ * flush 중이므로 엔티티가 아닌 JDBC 로 직접 쓴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberNameTrigramEventListener implements PostInsertEventListener,
+    PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String INSERT_SQL =
+        "insert into MEMBER_NAME_TRIGRAM (trigram, member_id) values (?, ?)";
+
+    static final String DELETE_SQL =
+        "delete from MEMBER_NAME_TRIGRAM where member_id = ?";
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Member member = (Member) event.getEntity();
+            index(event.getSession(), member.getId(), member.getName());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+
+        int nameIndex = ArrayUtils.indexOf(event.getPersister().getPropertyNames(), "name");
+        Object oldName = event.getOldState() == null ? null : event.getOldState()[nameIndex];
+        Object newName = event.getState()[nameIndex];
+
+        if (event.getOldState() != null && Objects.equals(oldName, newName)) {
+            return;
+        }
+
+        Long memberId = (Long) event.getId();
+        unindex(event.getSession(), memberId);
+        index(event.getSession(), memberId, (String) newName);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            unindex(event.getSession(), (Long) event.getId());
+        }
+    }
+
+    // 오타가 있는 deprecated 이름도 Hibernate 5 가 부를 수 있다.
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static void index(EventSource session, Long memberId, String name) {
+        if (name == null || name.length() < MemberNameTrigram.GRAM_SIZE) {
+            return;
+        }
+
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (String trigram : MemberNameTrigram.trigrams(name)) {
+                    statement.setString(1, trigram);
+                    statement.setLong(2, memberId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static void unindex(EventSource session, Long memberId) {
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+                statement.setLong(1, memberId);
+                statement.executeUpdate();
+            }
+        });
+    }
+}
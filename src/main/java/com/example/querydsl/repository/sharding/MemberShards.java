@@ -0,0 +1,209 @@
+package com.example.querydsl.repository.sharding;
+
+import com.example.querydsl.config.ShardingProperties;
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Names;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.jfr.QueryPhases;
+import com.example.querydsl.repository.support.QueryCancellation;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * MEMBER/TEAM 을 어느 shard 에 두는지 정하고, shard 별 작업을 병렬로 실행한다. (sharding.enabled)
+ *
+ * <ul>
+ *     <li>TEAM 은 정규화한 이름의 hash 로 shard 를 정한다. 그래서 teamName 조건만으로 shard 하나를 고를 수 있다.</li>
+ *     <li>MEMBER 는 team_id 의 shard 에 둔다. (team 없는 member 는 0 번)</li>
+ *     <li>TEAM/MEMBER id 에는 shard 가 들어 있다. ({@link ShardSchemaInitializer})</li>
+ * </ul>
+ *
+ * <p>shard 작업은 트랜잭션 밖의 별도 스레드에서 {@link ShardContext} 를 정하고 실행하므로
+ * 호출한 쪽 트랜잭션의 커넥션에 묶이지 않는다. 샤딩을 쓰지 않으면 호출한 스레드에서 그대로 실행한다.
+ */
+@Component
+public class MemberShards implements DisposableBean {
+    private final int count;
+
+    private final ExecutorService executor;
+
+    public MemberShards(ShardingProperties properties) {
+        this.count = properties.shardCount();
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = isSharded()
+            ? Executors.newFixedThreadPool(properties.getScatterThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "member-shard-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int shardOfTeamName(String teamName) {
+        return Math.floorMod(Names.normalize(teamName).hashCode(), count);
+    }
+
+    // shard k 의 id 는 k + 1, k + 1 + count, ...
+    public int shardOfId(Long id) {
+        return (int) Math.floorMod(id - 1, (long) count);
+    }
+
+    public int shardOf(Team team) {
+        return team.getId() != null ? shardOfId(team.getId()) : shardOfTeamName(team.getName());
+    }
+
+    public int shardOf(Member member) {
+        if (member.getId() != null) {
+            return shardOfId(member.getId());
+        }
+        return member.getTeam() == null ? 0 : shardOf(member.getTeam());
+    }
+
+    // teamName 조건이 있으면 그 팀의 shard 하나, 없으면 전부
+    public List<Integer> shardsFor(MemberSearchCondition condition) {
+        if (condition.getTeamName() != null) {
+            return List.of(shardOfTeamName(condition.getTeamName()));
+        }
+        return allShards();
+    }
+
+    public <T> T on(int shard, Supplier<T> task) {
+        return execute(List.of(shard), task).get(0);
+    }
+
+    // shard 순서대로 결과를 모은다. 하나라도 실패하면 나머지를 취소하고 그 예외를 던진다.
+    public <T> List<T> scatter(MemberSearchCondition condition, Supplier<T> task) {
+        return execute(shardsFor(condition), task);
+    }
+
+    // 조건과 상관없이 모든 shard 에서 실행한다.
+    public <T> List<T> scatterAll(Supplier<T> task) {
+        return execute(allShards(), task);
+    }
+
+    // id 를 shard 별로 나눠 그 id 가 있는 shard 에서만, 그 shard 의 id 만 넘겨 실행한다.
+    public <T> List<T> scatterByIds(Collection<Long> ids, Function<List<Long>, T> task) {
+        if (!isSharded()) {
+            return Collections.singletonList(task.apply(new ArrayList<>(ids)));
+        }
+
+        Map<Integer, List<Long>> idsByShard = ids.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.groupingBy(this::shardOfId, TreeMap::new, Collectors.toList()));
+        return execute(new ArrayList<>(idsByShard.keySet()), () -> task.apply(idsByShard.get(ShardContext.current())));
+    }
+
+    // shard 결과를 shard 순서대로 이어 붙인다. (순서가 없는 조회용)
+    public static <T> List<T> concat(List<? extends Collection<? extends T>> results) {
+        List<T> concatenated = new ArrayList<>();
+        results.forEach(concatenated::addAll);
+        return concatenated;
+    }
+
+    // shard 결과는 각각 comparator 순서로 정렬되어 있으므로 앞에서부터 하나씩 꺼내 합친다. (k-way merge)
+    public static <T> List<T> merge(List<? extends List<T>> results, Comparator<? super T> comparator,
+        long offset, long limit) {
+        PriorityQueue<PeekingIterator<T>> heads = new PriorityQueue<>(Math.max(1, results.size()),
+            (left, right) -> comparator.compare(left.peek(), right.peek()));
+        for (List<T> result : results) {
+            if (!result.isEmpty()) {
+                heads.add(Iterators.peekingIterator(result.iterator()));
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        for (long index = 0; !heads.isEmpty() && index < offset + limit; index++) {
+            PeekingIterator<T> head = heads.poll();
+            T next = head.next();
+            if (index >= offset) {
+                merged.add(next);
+            }
+            if (head.hasNext()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private List<Integer> allShards() {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private <T> List<T> execute(List<Integer> shards, Supplier<T> task) {
+        if (!isSharded()) {
+            return Collections.singletonList(task.get());
+        }
+
+        // 요청이 취소되면 모든 shard 의 쿼리가 취소되도록 넘겨준다. shard 쿼리도 호출한 method 로 기록한다.
+        QueryCancellation cancellation = QueryCancellation.current();
+        Supplier<T> recorded = QueryPhases.propagate(task);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Integer shard : shards) {
+            futures.add(executor.submit(() -> {
+                if (cancellation != null) {
+                    cancellation.bind();
+                }
+                try {
+                    return ShardContext.call(shard, recorded);
+                } finally {
+                    QueryCancellation.unbind();
+                }
+            }));
+        }
+
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException
+                ? (RuntimeException) e.getCause()
+                : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
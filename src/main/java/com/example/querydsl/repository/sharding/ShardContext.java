@@ -0,0 +1,34 @@
+package com.example.querydsl.repository.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 쓸 shard 번호. {@link ShardRoutingDataSource} 가 커넥션을 얻을 때 읽는다.
+ *
+ * <p>트랜잭션은 시작할 때 커넥션을 잡으므로 트랜잭션 밖에서 정해야 한다.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    // null 이면 0 번 shard
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(int shard, Supplier<T> task) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.querydsl.repository.sharding;
+
+import java.util.EnumSet;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.schema.TargetType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * SessionFactory 를 만드는 중에 엔티티 매핑으로 모든 shard 의 스키마를 만든다. (ddl-auto: create 를 shard 마다 하는 것과 같다)
+ *
+ * <p>TEAM/MEMBER 의 identity 는 shard k 에서 k + 1 부터 shard 수만큼 증가하므로 id 가 shard 사이에 겹치지 않고,
+ * id 만으로 shard 를 알 수 있다. ({@link MemberShards#shardOfId(Long)}, MySQL 의 auto_increment_offset/increment 와 같은 방식)
+ * ALTER 문은 H2 문법이다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements Integrator {
+    private static final List<String> SHARDED_ID_TABLES = List.of("TEAM", "MEMBER");
+
+    private final DataSource dataSource;
+
+    private final int shardCount;
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+        SessionFactoryServiceRegistry serviceRegistry) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            int offset = shard + 1;
+            ShardContext.call(shard, () -> {
+                new SchemaExport()
+                    .setHaltOnError(true)
+                    .create(EnumSet.of(TargetType.DATABASE), metadata);
+
+                for (String table : SHARDED_ID_TABLES) {
+                    jdbcTemplate.execute("alter table " + table + " alter column id restart with " + offset
+                        + " set increment by " + shardCount);
+                }
+                return null;
+            });
+        }
+        log.info("Created schema on {} shards", shardCount);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.querydsl.repository.sharding;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.TeamRepository;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 저장/단건 조회를 엔티티가 있어야 할 shard 로 보낸다. 각 호출은 그 shard 에서 자기 트랜잭션으로 실행된다.
+ *
+ * <p>Member 는 팀을 먼저 저장한 뒤 저장해야 팀과 같은 shard 에 들어간다.
+ * 다른 shard 의 팀으로 옮기는 것은 지원하지 않는다. (삭제 후 새로 저장)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShardedMemberRepository {
+    private final MemberShards memberShards;
+
+    private final MemberRepository memberRepository;
+
+    private final TeamRepository teamRepository;
+
+    public Team save(Team team) {
+        return memberShards.on(memberShards.shardOf(team), () -> teamRepository.save(team));
+    }
+
+    public Member save(Member member) {
+        if (member.getTeam() != null && member.getTeam().getId() == null) {
+            throw new IllegalArgumentException("Team must be saved before its members: " + member);
+        }
+        return memberShards.on(memberShards.shardOf(member), () -> memberRepository.save(member));
+    }
+
+    public Optional<Member> findById(Long memberId) {
+        return memberShards.on(memberShards.shardOfId(memberId), () -> memberRepository.findById(memberId));
+    }
+
+    public Optional<Team> findTeamById(Long teamId) {
+        return memberShards.on(memberShards.shardOfId(teamId), () -> teamRepository.findById(teamId));
+    }
+}
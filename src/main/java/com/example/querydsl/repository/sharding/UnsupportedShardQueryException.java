@@ -0,0 +1,17 @@
+package com.example.querydsl.repository.sharding;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 샤딩 중에는 여러 shard 의 결과를 합칠 수 없는 요청. 요청을 바꾸면 되므로 400 으로 응답한다.
+ *
+ * <p>IllegalArgumentException 이면 repository 의 예외 변환이 InvalidDataAccessApiUsageException 으로 감싸
+ * 500 이 되므로 RuntimeException 을 바로 상속한다.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedShardQueryException extends RuntimeException {
+    public UnsupportedShardQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.querydsl.repository.statistics;
+
+import com.example.querydsl.controller.dto.TeamStatisticsDto;
+import java.util.TreeMap;
+
+/**
+ * 팀 하나의 count/sum/min/max 를 증분으로 유지한다.
+ * min/max 는 삭제 시에도 다시 스캔하지 않도록 나이별 인원수(TreeMap)로 관리한다.
+ *
+ * <p>store 에 있는 counter 는 바뀔 때마다 version 을 남기고, flush 됐지만 아직 반영되지 않은 변경 수(pending)를 센다.
+ * reconcile 은 group by 를 시작한 뒤 바뀌었거나 pending 이 있는 counter 를 덮어쓰지 않는다.
+ */
+class TeamCounter {
+    private final Long teamId;
+
+    private volatile String teamName;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private long ageCount;
+
+    private final TreeMap<Integer, Long> memberCountByAge = new TreeMap<>();
+
+    // 마지막으로 바뀐 시점 (TeamStatisticsStore 의 sequence)
+    private long version;
+
+    // flush 됐지만 commit 이후 반영(add/remove)되거나 rollback 으로 풀리지(release) 않은 member 변경 수
+    private int pending;
+
+    TeamCounter(Long teamId, String teamName) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+    }
+
+    void rename(String teamName) {
+        if (teamName != null) {
+            this.teamName = teamName;
+        }
+    }
+
+    synchronized void add(Integer age, long count) {
+        memberCount += count;
+
+        if (age != null) {
+            ageSum += (long) age * count;
+            ageCount += count;
+            memberCountByAge.merge(age, count, Long::sum);
+        }
+    }
+
+    synchronized void flushed() {
+        pending++;
+    }
+
+    synchronized void release() {
+        pending--;
+    }
+
+    // commit 된 변경을 반영하고 flushed() 로 남긴 pending 을 푼다.
+    synchronized void add(Integer age, long count, long version) {
+        this.version = version;
+        pending--;
+        add(age, count);
+    }
+
+    synchronized void remove(Integer age, long version) {
+        this.version = version;
+        pending--;
+        memberCount--;
+
+        if (age != null) {
+            ageSum -= age;
+            ageCount--;
+            memberCountByAge.computeIfPresent(age, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    synchronized void clear(long version) {
+        this.version = version;
+        memberCount = 0;
+        ageSum = 0;
+        ageCount = 0;
+        memberCountByAge.clear();
+    }
+
+    // since 이후에 바뀌지 않았고 반영을 기다리는 변경도 없을 때만 source (group by 결과, 다른 스레드와 공유하지 않는다) 의 값으로 바꾼다.
+    synchronized boolean resetTo(TeamCounter source, long since) {
+        if (version > since || pending > 0) {
+            return false;
+        }
+        rename(source.teamName);
+        memberCount = source.memberCount;
+        ageSum = source.ageSum;
+        ageCount = source.ageCount;
+        memberCountByAge.clear();
+        memberCountByAge.putAll(source.memberCountByAge);
+        return true;
+    }
+
+    synchronized boolean isEmpty() {
+        return memberCount <= 0;
+    }
+
+    synchronized TeamStatisticsDto toDto() {
+        return new TeamStatisticsDto(
+            teamId,
+            teamName,
+            memberCount,
+            ageCount == 0 ? null : ageSum,
+            ageCount == 0 ? null : (double) ageSum / ageCount,
+            memberCountByAge.isEmpty() ? null : memberCountByAge.firstKey(),
+            memberCountByAge.isEmpty() ? null : memberCountByAge.lastKey());
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.querydsl.repository.statistics;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.apache.commons.lang3.ArrayUtils;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member 의 insert/delete/age 변경/changeTeam 을 commit 이후(POST_COMMIT_*)에 {@link TeamStatisticsStore} 로 반영한다.
+ * rollback 되거나 commit 에 실패한 변경은 반영하지 않는다.
+ *
+ * <p>flush 시점(POST_*)에는 바뀔 팀을 store 에 pending 으로 남기고, commit 이후 반영하거나 실패하면 푼다.
+ * DB commit 과 이 listener 사이에 끝난 reconcile 이 그 팀을 group by 결과로 덮어쓰면
+ * listener 가 group by 에 이미 들어간 변경을 한 번 더 더하게 되므로, reconcile 은 pending 인 팀을 건너뛴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamStatisticsEventListener implements PostCommitInsertEventListener,
+    PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient TeamStatisticsStore store;
+
+    private final transient FlushListener flushListener = new FlushListener();
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, flushListener);
+        registry.appendListeners(EventType.POST_UPDATE, flushListener);
+        registry.appendListeners(EventType.POST_DELETE, flushListener);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Team) {
+            Team team = (Team) event.getEntity();
+            store.teamAdded(team.getId(), team.getName());
+        }
+        changes(event).forEach(this::apply);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        changes(event).forEach(this::release);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changes(event).forEach(this::apply);
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        changes(event).forEach(this::release);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Team) {
+            store.teamRemoved((Long) event.getId());
+        }
+        changes(event).forEach(this::apply);
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        changes(event).forEach(this::release);
+    }
+
+    // Hibernate 5 의 오타 이름 (deprecated). 같은 답을 하도록 아래로 넘긴다.
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> mappedClass = persister.getMappedClass();
+        return mappedClass == Member.class || mappedClass == Team.class;
+    }
+
+    private void apply(MemberChange change) {
+        if (change.isAdded()) {
+            store.memberAdded(change.getTeamId(), change.getTeamName(), change.getAge());
+        } else {
+            store.memberRemoved(change.getTeamId(), change.getAge());
+        }
+    }
+
+    private void release(MemberChange change) {
+        store.memberReleased(change.getTeamId());
+    }
+
+    // 엔티티가 아니라 이벤트의 state 로 계산한다. flush 이후 엔티티가 다시 바뀌어도 flush 때와 commit 이후에 같은 팀이 나온다.
+    private static List<MemberChange> changes(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return List.of();
+        }
+        return changes(null, change(event.getPersister(), event.getState(), true));
+    }
+
+    private static List<MemberChange> changes(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member) || event.getOldState() == null) {
+            // oldState 가 없으면 (detached update 등) 차이를 알 수 없으므로 reconciliation 에 맡긴다.
+            return List.of();
+        }
+
+        MemberChange removed = change(event.getPersister(), event.getOldState(), false);
+        MemberChange added = change(event.getPersister(), event.getState(), true);
+        if (removed != null && added != null && removed.getTeamId().equals(added.getTeamId())
+            && Objects.equals(removed.getAge(), added.getAge())) {
+            return List.of();
+        }
+        return changes(removed, added);
+    }
+
+    private static List<MemberChange> changes(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Member) || event.getDeletedState() == null) {
+            return List.of();
+        }
+        return changes(change(event.getPersister(), event.getDeletedState(), false), null);
+    }
+
+    private static List<MemberChange> changes(MemberChange removed, MemberChange added) {
+        List<MemberChange> changes = new ArrayList<>(2);
+        if (removed != null) {
+            changes.add(removed);
+        }
+        if (added != null) {
+            changes.add(added);
+        }
+        return changes;
+    }
+
+    // 팀이 없는 member 는 통계에 들어가지 않으므로 null 이다.
+    private static MemberChange change(EntityPersister persister, Object[] state, boolean added) {
+        String[] propertyNames = persister.getPropertyNames();
+        Team team = (Team) state[ArrayUtils.indexOf(propertyNames, "team")];
+        if (team == null) {
+            return null;
+        }
+        Integer age = (Integer) state[ArrayUtils.indexOf(propertyNames, "age")];
+        return new MemberChange(teamId(team), added ? teamName(team) : null, age, added);
+    }
+
+    // 프록시를 초기화하지 않고 id 를 꺼낸다.
+    private static Long teamId(Team team) {
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team.getId();
+    }
+
+    private static String teamName(Team team) {
+        return Hibernate.isInitialized(team) ? team.getName() : null;
+    }
+
+    @Value
+    private static class MemberChange {
+        Long teamId;
+        String teamName;
+        Integer age;
+        // false 면 팀에서 빠진다.
+        boolean added;
+    }
+
+    // flush 시점(POST_*)에 commit 이후 반영할 팀을 pending 으로 남긴다.
+    private class FlushListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changes(event).forEach(this::flushed);
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changes(event).forEach(this::flushed);
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changes(event).forEach(this::flushed);
+        }
+
+        @Override
+        @Deprecated
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return requiresPostCommitHandling(persister);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void flushed(MemberChange change) {
+            store.memberFlushed(change.getTeamId());
+        }
+    }
+}
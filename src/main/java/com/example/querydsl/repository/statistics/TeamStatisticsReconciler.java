@@ -0,0 +1,114 @@
+package com.example.querydsl.repository.statistics;
+
+import static com.example.querydsl.domain.QMember.member;
+import static com.example.querydsl.domain.QTeam.team;
+
+import com.example.querydsl.config.InvalidationProperties;
+import com.example.querydsl.repository.invalidation.InvalidationEvent;
+import com.example.querydsl.repository.invalidation.InvalidationListener;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.statistics.TeamStatisticsStore.ReconcileResult;
+import com.example.querydsl.repository.workload.Workload;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * group by 쿼리로 {@link TeamStatisticsStore} 를 다시 계산해 맞춘다.
+ * 기동 시 한 번, 이후 team-statistics.reconcile-interval 주기로 실행한다. 샤딩 중에는 shard 마다 세어 합친다.
+ * 다른 노드의 변경은 {@link InvalidationListener} 로 받아 바뀐 팀만 다시 계산한다.
+ */
+@Slf4j
+@Component
+public class TeamStatisticsReconciler implements InvalidationListener {
+    private final JPAQueryFactory queryFactory;
+
+    private final TeamStatisticsStore store;
+
+    private final InvalidationProperties invalidationProperties;
+
+    private final MemberShards memberShards;
+
+    private final Counter drift;
+
+    public TeamStatisticsReconciler(EntityManager em, TeamStatisticsStore store,
+        InvalidationProperties invalidationProperties, MemberShards memberShards, MeterRegistry meterRegistry) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.store = store;
+        this.invalidationProperties = invalidationProperties;
+        this.memberShards = memberShards;
+        this.drift = meterRegistry.counter("team.statistics.reconcile.drift");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${team-statistics.reconcile-interval:PT5M}",
+        initialDelayString = "${team-statistics.reconcile-interval:PT5M}")
+    @Workload(WorkloadClass.BULK)
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        long since = store.version();
+        // team id 에 shard 가 들어 있으므로 shard 별 결과는 겹치지 않는다.
+        Map<Long, TeamCounter> reconciled = new HashMap<>();
+        memberShards.scatterAll(() -> count(null)).forEach(reconciled::putAll);
+
+        Set<Long> teamIds = store.teamIds();
+        teamIds.addAll(reconciled.keySet());
+        ReconcileResult result = store.reconcile(since, teamIds, reconciled);
+
+        if (result.getDrifted() > 0) {
+            drift.increment(result.getDrifted());
+            log.info("team statistics reconciled: {} team(s) drifted, {} changed while counting",
+                result.getDrifted(), result.getSkipped());
+        }
+    }
+
+    /**
+     * 로컬 변경은 {@link TeamStatisticsEventListener} 가 이미 반영했으므로 다른 노드의 이벤트만 본다.
+     * 팀을 모르는 벌크 변경은 로컬과 마찬가지로 주기적인 reconcile 에 맡긴다.
+     */
+    @Override
+    public void onInvalidation(List<InvalidationEvent> events) {
+        Set<Long> teamIds = events.stream()
+            .filter(event -> !invalidationProperties.getNodeId().equals(event.getNodeId()))
+            .flatMap(event -> event.teamIds().stream())
+            .collect(Collectors.toSet());
+        if (!teamIds.isEmpty()) {
+            long since = store.version();
+            store.reconcile(since, teamIds, count(team.id.in(teamIds)));
+        }
+    }
+
+    private Map<Long, TeamCounter> count(Predicate where) {
+        List<Tuple> rows = queryFactory
+            .select(team.id, team.name, member.age, member.count())
+            .from(member)
+            .join(member.team, team)
+            .where(where)
+            .groupBy(team.id, team.name, member.age)
+            .fetch();
+
+        Map<Long, TeamCounter> counted = new HashMap<>();
+        for (Tuple row : rows) {
+            Long teamId = row.get(team.id);
+            counted.computeIfAbsent(teamId, id -> new TeamCounter(id, row.get(team.name)))
+                .add(row.get(member.age), Objects.requireNonNull(row.get(member.count())));
+        }
+        return counted;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.querydsl.repository.statistics;
+
+import com.example.querydsl.controller.dto.TeamStatisticsDto;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 팀별 통계를 메모리에 유지한다. 조회는 O(팀 수) 이다.
+ * Member/Team 변경은 {@link TeamStatisticsEventListener} 가 commit 이후 반영하고,
+ * 벌크 연산처럼 이벤트가 발생하지 않는 변경은 {@link TeamStatisticsReconciler} 가 주기적으로 보정한다.
+ * 다른 노드의 변경은 {@link TeamStatisticsReconciler} 가 무효화 이벤트를 받아 해당 팀만 다시 계산한다.
+ *
+ * <p>reconcile 은 map 을 통째로 바꾸지 않고 팀마다 맞춘다. group by 를 시작한 뒤 listener 가 바꾼 팀과
+ * flush 됐지만 listener 가 아직 반영하지 않은 팀은 그 변경이 group by 결과에 들어갔는지 알 수 없으므로
+ * 건너뛰고 다음 reconcile 에 맡긴다.
+ */
+@Component
+public class TeamStatisticsStore {
+    private final Map<Long, TeamCounter> counters = new ConcurrentHashMap<>();
+
+    // listener 가 counter 를 바꿀 때마다 증가한다.
+    private final AtomicLong sequence = new AtomicLong();
+
+    public List<TeamStatisticsDto> findAll() {
+        return counters.values().stream()
+            .filter(counter -> !counter.isEmpty())
+            .map(TeamCounter::toDto)
+            .sorted(Comparator.comparing(TeamStatisticsDto::getTeamName,
+                Comparator.nullsLast(Comparator.naturalOrder())))
+            .collect(Collectors.toList());
+    }
+
+    void teamAdded(Long teamId, String teamName) {
+        counter(teamId, teamName);
+    }
+
+    // 지우지 않고 비운다. 지우기 전에 시작한 reconcile 이 팀을 되살리지 않게 한다.
+    void teamRemoved(Long teamId) {
+        counter(teamId, null).clear(sequence.incrementAndGet());
+    }
+
+    // flush 된 member 변경. commit 이후 memberAdded/memberRemoved 로, 실패하면 memberReleased 로 짝을 맞춘다.
+    void memberFlushed(Long teamId) {
+        counter(teamId, null).flushed();
+    }
+
+    void memberReleased(Long teamId) {
+        counter(teamId, null).release();
+    }
+
+    void memberAdded(Long teamId, String teamName, Integer age) {
+        counter(teamId, teamName).add(age, 1, sequence.incrementAndGet());
+    }
+
+    void memberRemoved(Long teamId, Integer age) {
+        counter(teamId, null).remove(age, sequence.incrementAndGet());
+    }
+
+    // group by 를 시작하기 전에 읽어 reconcile 에 넘긴다.
+    long version() {
+        return sequence.get();
+    }
+
+    Set<Long> teamIds() {
+        return new HashSet<>(counters.keySet());
+    }
+
+    /**
+     * since 이후 바뀌지 않은 팀을 reconciled 로 맞춘다. teamIds 중 reconciled 에 없는 팀은 member 가 없는 것이므로 비운다.
+     */
+    ReconcileResult reconcile(long since, Collection<Long> teamIds, Map<Long, TeamCounter> reconciled) {
+        int drifted = 0;
+        int skipped = 0;
+        for (Long teamId : teamIds) {
+            TeamCounter source = reconciled.getOrDefault(teamId, new TeamCounter(teamId, null));
+            TeamCounter counter = counters.get(teamId);
+            if (counter == null) {
+                // 그 사이 listener 가 만들었으면 그 counter 를 맞춰 본다.
+                counter = source.isEmpty() ? null : counters.putIfAbsent(teamId, source);
+                if (counter == null) {
+                    drifted += source.isEmpty() ? 0 : 1;
+                    continue;
+                }
+            }
+
+            TeamStatisticsDto before = counter.toDto();
+            if (!counter.resetTo(source, since)) {
+                skipped++;
+            } else if (!before.equals(counter.toDto())) {
+                drifted++;
+            }
+        }
+        return new ReconcileResult(drifted, skipped);
+    }
+
+    private TeamCounter counter(Long teamId, String teamName) {
+        TeamCounter counter = counters.computeIfAbsent(teamId, id -> new TeamCounter(id, teamName));
+        counter.rename(teamName);
+        return counter;
+    }
+
+    @Value
+    static class ReconcileResult {
+        // 값이 달라서 고친 팀 수
+        int drifted;
+        // reconcile 중에 바뀌어 건너뛴 팀 수
+        int skipped;
+    }
+}
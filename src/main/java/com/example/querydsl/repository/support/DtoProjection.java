@@ -0,0 +1,54 @@
+package com.example.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link DtoProjections} 가 만든 인스턴스 생성 함수를 row 마다 호출하는 FactoryExpression.
+ */
+public class DtoProjection<T> extends FactoryExpressionBase<T> {
+    private final List<Expression<?>> args;
+
+    private final transient Function<Object[], T> factory;
+
+    DtoProjection(Class<? extends T> type, Expression<?>[] args, Function<Object[], T> factory) {
+        super(type);
+        this.args = Collections.unmodifiableList(Arrays.asList(args.clone()));
+        this.factory = factory;
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public T newInstance(Object... args) {
+        return factory.apply(args);
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof FactoryExpression)) {
+            return false;
+        }
+
+        FactoryExpression<?> other = (FactoryExpression<?>) obj;
+        return getType().equals(other.getType()) && args.equals(other.getArgs());
+    }
+}
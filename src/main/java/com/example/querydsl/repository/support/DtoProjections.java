@@ -0,0 +1,278 @@
+package com.example.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.Value;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * {@link com.querydsl.core.types.Projections} 의 bean/fields/constructor 와 같은 용도지만
+ * row 마다 reflection 을 호출하지 않는다.
+ * DTO 타입과 인자 구성별로 MethodHandle/LambdaMetafactory 기반 생성 함수를 한 번만 만들어 캐시한다.
+ *
+ * <p>bean/fields 는 이름(path 이름 또는 ExpressionUtils.as 의 alias)으로 바인딩한다.
+ * 기본 생성자가 없는 불변 DTO (MemberDto, MemberTeamDto) 는 같은 이름의 생성자 파라미터로 바인딩한다. (-parameters 필요)
+ */
+public final class DtoProjections {
+    private static final ConcurrentMap<Signature, Function<Object[], ?>> FACTORIES =
+        new ConcurrentHashMap<>();
+
+    private DtoProjections() {
+    }
+
+    public static <T> DtoProjection<T> constructor(Class<? extends T> type, Expression<?>... args) {
+        List<Object> argTypes = Arrays.asList(Arrays.stream(args).map(Expression::getType).toArray());
+        return projection(new Signature(type, Binding.CONSTRUCTOR, argTypes), args);
+    }
+
+    public static <T> DtoProjection<T> bean(Class<? extends T> type, Expression<?>... args) {
+        return projection(new Signature(type, Binding.BEAN, names(args)), args);
+    }
+
+    public static <T> DtoProjection<T> fields(Class<? extends T> type, Expression<?>... args) {
+        return projection(new Signature(type, Binding.FIELDS, names(args)), args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> DtoProjection<T> projection(Signature signature, Expression<?>[] args) {
+        Function<Object[], T> factory = (Function<Object[], T>) FACTORIES.computeIfAbsent(
+            signature, DtoProjections::createFactory);
+        return new DtoProjection<>((Class<? extends T>) signature.getType(), args, factory);
+    }
+
+    private static Function<Object[], ?> createFactory(Signature signature) {
+        Class<?> type = signature.getType();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+
+            if (signature.getBinding() == Binding.CONSTRUCTOR) {
+                Class<?>[] argTypes = signature.getArgs().toArray(new Class<?>[0]);
+                return constructorFactory(lookup, findConstructor(type, argTypes));
+            }
+
+            String[] names = signature.getArgs().toArray(new String[0]);
+            if (!hasDefaultConstructor(type)) {
+                return namedConstructorFactory(lookup, type, names);
+            }
+
+            return signature.getBinding() == Binding.BEAN
+                ? beanFactory(lookup, type, names)
+                : fieldsFactory(lookup, type, names);
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot create projection for " + signature, e);
+        }
+    }
+
+    private static Function<Object[], ?> constructorFactory(MethodHandles.Lookup lookup,
+        Constructor<?> constructor) throws IllegalAccessException {
+
+        MethodHandle handle = lookup.unreflectConstructor(constructor)
+            .asSpreader(Object[].class, constructor.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+
+        return args -> {
+            try {
+                return handle.invokeExact(args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static Function<Object[], ?> namedConstructorFactory(MethodHandles.Lookup lookup,
+        Class<?> type, String[] names) throws IllegalAccessException {
+
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            Parameter[] parameters = constructor.getParameters();
+            if (parameters.length != names.length
+                || (parameters.length > 0 && !parameters[0].isNamePresent())) {
+                continue;
+            }
+
+            // 생성자 파라미터 순서 -> select 인자 순서
+            int[] positions = new int[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                positions[i] = Arrays.asList(names).indexOf(parameters[i].getName());
+            }
+
+            if (Arrays.stream(positions).noneMatch(position -> position < 0)) {
+                Function<Object[], ?> factory = constructorFactory(lookup, constructor);
+                return args -> {
+                    Object[] ordered = new Object[positions.length];
+                    for (int i = 0; i < positions.length; i++) {
+                        ordered[i] = args[positions[i]];
+                    }
+                    return factory.apply(ordered);
+                };
+            }
+        }
+
+        throw new IllegalArgumentException(
+            "No default constructor or constructor with parameters " + Arrays.toString(names));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object[], ?> beanFactory(MethodHandles.Lookup lookup, Class<?> type,
+        String[] names) throws Throwable {
+
+        Supplier<Object> instantiator = instantiator(lookup, type);
+
+        BiConsumer<Object, Object>[] setters = new BiConsumer[names.length];
+        for (int i = 0; i < names.length; i++) {
+            MethodHandle setter = lookup.unreflect(findSetter(type, names[i]));
+            CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                setter,
+                setter.type().wrap().changeReturnType(void.class));
+            setters[i] = (BiConsumer<Object, Object>) site.getTarget().invoke();
+        }
+
+        return args -> {
+            Object bean = instantiator.get();
+            for (int i = 0; i < setters.length; i++) {
+                if (args[i] != null) {
+                    setters[i].accept(bean, args[i]);
+                }
+            }
+            return bean;
+        };
+    }
+
+    private static Function<Object[], ?> fieldsFactory(MethodHandles.Lookup lookup, Class<?> type,
+        String[] names) throws Throwable {
+
+        Supplier<Object> instantiator = instantiator(lookup, type);
+
+        MethodHandle[] setters = new MethodHandle[names.length];
+        for (int i = 0; i < names.length; i++) {
+            setters[i] = lookup.unreflectSetter(findField(type, names[i]))
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        return args -> {
+            Object bean = instantiator.get();
+            try {
+                for (int i = 0; i < setters.length; i++) {
+                    if (args[i] != null) {
+                        setters[i].invokeExact(bean, args[i]);
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            return bean;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> instantiator(MethodHandles.Lookup lookup, Class<?> type)
+        throws Throwable {
+
+        MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+        CallSite site = LambdaMetafactory.metafactory(
+            lookup,
+            "get",
+            MethodType.methodType(Supplier.class),
+            MethodType.methodType(Object.class),
+            constructor,
+            MethodType.methodType(type));
+        return (Supplier<Object>) site.getTarget().invoke();
+    }
+
+    private static Constructor<?> findConstructor(Class<?> type, Class<?>[] argTypes) {
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (ClassUtils.isAssignable(argTypes, constructor.getParameterTypes(), true)) {
+                return constructor;
+            }
+        }
+        throw new IllegalArgumentException(
+            "No constructor " + type.getName() + Arrays.toString(argTypes));
+    }
+
+    private static boolean hasDefaultConstructor(Class<?> type) {
+        return Arrays.stream(type.getDeclaredConstructors())
+            .anyMatch(constructor -> constructor.getParameterCount() == 0);
+    }
+
+    private static Method findSetter(Class<?> type, String name) throws NoSuchMethodException {
+        String setterName = "set" + StringUtils.capitalize(name);
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.getName().equals(setterName) && method.getParameterCount() == 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            }
+        }
+        throw new NoSuchMethodException(type.getName() + "." + setterName);
+    }
+
+    private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+                // 상위 클래스에서 계속 찾는다.
+            }
+        }
+        throw new NoSuchFieldException(type.getName() + "." + name);
+    }
+
+    private static List<Object> names(Expression<?>[] args) {
+        return Arrays.asList(Arrays.stream(args).map(DtoProjections::name).toArray());
+    }
+
+    // QBean 과 같은 규칙: ExpressionUtils.as(...) 의 alias, 아니면 path 이름
+    private static String name(Expression<?> expression) {
+        if (expression instanceof Operation
+            && ((Operation<?>) expression).getOperator() == Ops.ALIAS) {
+            return name(((Operation<?>) expression).getArg(1));
+        }
+
+        if (expression instanceof Path) {
+            return ((Path<?>) expression).getMetadata().getName();
+        }
+
+        throw new IllegalArgumentException("Unsupported expression " + expression);
+    }
+
+    private enum Binding {
+        CONSTRUCTOR, BEAN, FIELDS
+    }
+
+    @Value
+    private static class Signature {
+        Class<?> type;
+        Binding binding;
+        List<Object> args;
+    }
+}
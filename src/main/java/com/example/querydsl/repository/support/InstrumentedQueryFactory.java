@@ -0,0 +1,49 @@
+package com.example.querydsl.repository.support;
+
+import com.example.querydsl.repository.jfr.QueryPhases;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * 만든 쿼리가 JPA Query 로 바뀌는 시점(fetch, fetchResults 의 count, stream 등)에
+ *
+ * <ul>
+ *     <li>{@link QueryPhases} 의 조립 단계를 끝내고</li>
+ *     <li>실행 중인 repository 메서드의 timeout 을 {@link QueryTimeouts#HINT} 로 건다.</li>
+ * </ul>
+ */
+public class InstrumentedQueryFactory extends JPAQueryFactory {
+    private final EntityManager em;
+
+    private final QueryTimeouts queryTimeouts;
+
+    public InstrumentedQueryFactory(EntityManager em, QueryTimeouts queryTimeouts) {
+        super(em);
+        this.em = em;
+        this.queryTimeouts = queryTimeouts;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new InstrumentedQuery<Void>(em, queryTimeouts);
+    }
+
+    private static class InstrumentedQuery<T> extends JPAQuery<T> {
+        private final QueryTimeouts queryTimeouts;
+
+        InstrumentedQuery(EntityManager em, QueryTimeouts queryTimeouts) {
+            super(em);
+            this.queryTimeouts = queryTimeouts;
+        }
+
+        @Override
+        protected Query createQuery(QueryModifiers modifiers, boolean forCount) {
+            QueryPhases.beforeCreateQuery();
+            return super.createQuery(modifiers, forCount)
+                .setHint(QueryTimeouts.HINT, queryTimeouts.timeoutMillis());
+        }
+    }
+}
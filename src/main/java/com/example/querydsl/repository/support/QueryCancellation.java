@@ -0,0 +1,130 @@
+package com.example.querydsl.repository.support;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 요청 하나에서 실행 중인 JDBC Statement 를 추적했다가 {@link #cancel()} 시 Statement.cancel() 로 중단시킨다.
+ *
+ * <p>{@link #track(DataSource)} 로 감싼 DataSource 에서 만든 Statement 가 실행될 때,
+ * 현재 스레드에 bind 된 QueryCancellation 이 있으면 실행되는 동안 등록된다.
+ * 이미 취소된 요청에서 새로 실행하려는 쿼리는 DB 로 보내지 않고 SQLTimeoutException 으로 끝낸다.
+ */
+@Slf4j
+public final class QueryCancellation {
+    public static final String REQUEST_ATTRIBUTE = QueryCancellation.class.getName();
+
+    private static final ThreadLocal<QueryCancellation> CURRENT = new ThreadLocal<>();
+
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cancelled;
+
+    public static QueryCancellation current() {
+        return CURRENT.get();
+    }
+
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public int runningCount() {
+        return running.size();
+    }
+
+    // 취소한 Statement 수를 반환한다.
+    public int cancel() {
+        cancelled = true;
+        int count = 0;
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+                count++;
+            } catch (SQLException e) {
+                log.warn("Failed to cancel statement", e);
+            }
+        }
+        return count;
+    }
+
+    public static DataSource track(DataSource dataSource) {
+        // 빈의 close(Hikari 풀 종료)가 그대로 호출되도록 Closeable 도 유지한다.
+        Class<?>[] types = dataSource instanceof Closeable
+            ? new Class<?>[]{DataSource.class, Closeable.class}
+            : new Class<?>[]{DataSource.class};
+        return proxy(types, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return method.getName().equals("getConnection")
+                ? proxy(Connection.class, (Connection) result, QueryCancellation::connection)
+                : result;
+        });
+    }
+
+    private static Object connection(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+            return proxy(method.getReturnType(), result, QueryCancellation::statement);
+        }
+        return result;
+    }
+
+    private static Object statement(Object target, Method method, Object[] args) throws Throwable {
+        QueryCancellation cancellation = CURRENT.get();
+        if (cancellation == null || !method.getName().startsWith("execute")) {
+            return invoke(target, method, args);
+        }
+
+        if (cancellation.cancelled) {
+            throw new SQLTimeoutException("Query cancelled: request was aborted");
+        }
+
+        Statement statement = (Statement) target;
+        cancellation.running.add(statement);
+        try {
+            return invoke(target, method, args);
+        } finally {
+            cancellation.running.remove(statement);
+        }
+    }
+
+    private static <T> T proxy(Class<?> type, Object target, TargetInvocation invocation) {
+        return proxy(new Class<?>[]{type}, target, invocation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?>[] types, Object target, TargetInvocation invocation) {
+        return (T) Proxy.newProxyInstance(QueryCancellation.class.getClassLoader(), types,
+            (proxy, method, args) -> invocation.invoke(target, method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocation {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.querydsl.repository.support;
+
+import com.example.querydsl.config.QueryTimeoutProperties;
+import com.example.querydsl.repository.jfr.QueryPhases;
+import org.springframework.stereotype.Component;
+
+/**
+ * QueryTimeoutProperties 의 메서드별 timeout 을 javax.persistence.query.timeout 힌트 값으로 바꾼다.
+ *
+ * <p>메서드는 지금 실행 중인 {@link com.example.querydsl.repository.jfr.RecordQueryPhases} 메서드다.
+ * InstrumentedQueryFactory 가 만든 쿼리에는 자동으로 적용되고, 그 밖의 JPA 쿼리(Spring Data, em.createQuery)에는
+ * default-timeout 이 Hibernate 기본값으로 적용된다. (QueryCancellationConfig)
+ */
+@Component
+public class QueryTimeouts {
+    public static final String HINT = "javax.persistence.query.timeout";
+
+    private final QueryTimeoutProperties properties;
+
+    public QueryTimeouts(QueryTimeoutProperties properties) {
+        this.properties = properties;
+    }
+
+    public int timeoutMillis() {
+        return timeoutMillis(QueryPhases.currentMethod());
+    }
+
+    public int defaultTimeoutMillis() {
+        return timeoutMillis(null);
+    }
+
+    // Statement.setQueryTimeout 에 바로 넘길 값 (StatelessSession, querydsl-sql)
+    public int timeoutSeconds() {
+        return timeoutMillis() / 1000;
+    }
+
+    // Hibernate 는 Statement.setQueryTimeout(초) 로 적용하므로 1초 미만은 1초로 올린다.
+    private int timeoutMillis(String method) {
+        long millis = (method == null ? properties.getDefaultTimeout() : properties.timeoutOf(method)).toMillis();
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1000, millis));
+    }
+}
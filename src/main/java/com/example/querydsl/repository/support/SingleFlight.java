@@ -0,0 +1,75 @@
+package com.example.querydsl.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key 로 동시에 들어온 호출을 하나의 실행으로 합친다.
+ * 실행이 끝나면 즉시 key 를 제거하므로 결과를 캐시하지 않는다. (TTL 캐시와 다름)
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder(name)
+            .tag("result", "executed")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder(name)
+            .tag("result", "coalesced")
+            .register(meterRegistry);
+        meterRegistry.gauge(name + ".in-flight", inFlight, ConcurrentMap::size);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+
+        V value;
+        try {
+            value = loader.get();
+        } catch (Throwable t) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(t);
+            throw t;
+        }
+
+        // 완료 전에 먼저 제거해야 이후 호출이 끝난 결과를 재사용하지 않는다.
+        inFlight.remove(key, created);
+        created.complete(value);
+        return value;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.querydsl.repository.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메서드(또는 클래스의 모든 public 메서드)를 해당 workload 의 bulkhead 안에서 실행한다.
+ * 메서드에 붙은 값이 클래스에 붙은 값보다 우선한다.
+ *
+ * @see WorkloadBulkheads
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+    WorkloadClass value();
+}
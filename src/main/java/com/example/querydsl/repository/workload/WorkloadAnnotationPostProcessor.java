@@ -0,0 +1,99 @@
+package com.example.querydsl.repository.workload;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link Workload} 가 붙은 빈을 프록시로 감싸 {@link WorkloadBulkheads} 안에서 실행한다.
+ * (@Async, @Validated 와 같은 방식이라 AspectJ 없이 동작한다.)
+ *
+ * <p>Spring Data repository 는 target 이 SimpleJpaRepository 인 JDK 프록시이므로 인터페이스에 붙은 {@link Workload} 를 보고
+ * 그 프록시의 맨 앞에 advisor 를 넣는다.
+ */
+public class WorkloadAnnotationPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    private final Advisor repositoryAdvisor;
+
+    public WorkloadAnnotationPostProcessor(ObjectProvider<WorkloadBulkheads> bulkheads) {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Workload.class, true))
+            .union(new AnnotationMatchingPointcut(null, Workload.class, true));
+
+        // BeanPostProcessor 는 일찍 만들어지므로 bulkhead 빈은 처음 호출될 때 가져온다.
+        MethodInterceptor interceptor = new MethodInterceptor() {
+            @Override
+            public Object invoke(MethodInvocation invocation) {
+                Workload workload = workloadOf(invocation);
+                if (workload == null) {
+                    return proceed(invocation);
+                }
+                return bulkheads.getObject().execute(workload.value(), () -> proceed(invocation));
+            }
+        };
+
+        this.advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        this.repositoryAdvisor = new DefaultPointcutAdvisor(interceptor);
+        setProxyTargetClass(true);
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Advised && Proxy.isProxyClass(bean.getClass())) {
+            Advised advised = (Advised) bean;
+            boolean annotated = Arrays.stream(advised.getProxiedInterfaces())
+                .anyMatch(type -> AnnotatedElementUtils.hasAnnotation(type, Workload.class));
+            if (annotated && !advised.isFrozen()) {
+                advised.addAdvisor(0, repositoryAdvisor);
+                return bean;
+            }
+        }
+        return super.postProcessAfterInitialization(bean, beanName);
+    }
+
+    private static Workload workloadOf(MethodInvocation invocation) {
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), Workload.class);
+        if (workload != null) {
+            return workload;
+        }
+        // Spring Data repository: 프록시가 구현한 repository 인터페이스 (toString 등 Object 메서드는 제외)
+        if (ReflectionUtils.isObjectMethod(invocation.getMethod())) {
+            return null;
+        }
+        if (invocation instanceof ProxyMethodInvocation
+            && Proxy.isProxyClass(((ProxyMethodInvocation) invocation).getProxy().getClass())) {
+            return AnnotatedElementUtils.findMergedAnnotation(
+                ((ProxyMethodInvocation) invocation).getProxy().getClass(), Workload.class);
+        }
+
+        Class<?> targetClass = invocation.getThis() == null
+            ? invocation.getMethod().getDeclaringClass()
+            : AopUtils.getTargetClass(invocation.getThis());
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+        workload = AnnotatedElementUtils.findMergedAnnotation(method, Workload.class);
+        return workload != null ? workload : AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+    }
+
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.querydsl.repository.workload;
+
+import com.example.querydsl.config.WorkloadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.lang.ref.Cleaner;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * workload 별 semaphore bulkhead. 커넥션 풀은 하나지만 workload 마다 동시에 DB 작업을 할 수 있는 수를 제한해
+ * bulk 작업이 풀을 다 차지하지 못하게 한다.
+ *
+ * <p>같은 workload 의 permit 을 이미 가진 스레드에서 다시 호출하면 (중첩 호출) 새로 얻지 않는다.
+ * 다른 workload 를 호출하면 그 workload 의 permit 도 얻는다. (interactive 안에서 부른 bulk 작업도 bulk 로 센다)
+ * Stream 을 반환하면 permit 은 Stream 이 닫힐 때 반납되고, 닫지 않고 버린 Stream 은 GC 될 때 반납된다.
+ *
+ * <p>metrics: workload.active, workload.utilization (gauge), workload.wait (timer), workload.rejected,
+ * workload.stream.leaked (닫지 않은 Stream 의 permit 을 GC 가 돌려준 수) (counter)
+ */
+@Slf4j
+@Component
+public class WorkloadBulkheads {
+    private static final ThreadLocal<Set<WorkloadClass>> HOLDING =
+        ThreadLocal.withInitial(() -> EnumSet.noneOf(WorkloadClass.class));
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    public WorkloadBulkheads(WorkloadProperties properties, MeterRegistry meterRegistry) {
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            bulkheads.put(workloadClass,
+                new Bulkhead(workloadClass, properties.limitOf(workloadClass), meterRegistry));
+        }
+    }
+
+    public <T> T execute(WorkloadClass workloadClass, Supplier<T> task) {
+        Set<WorkloadClass> holding = HOLDING.get();
+        if (holding.contains(workloadClass)) {
+            return task.get();
+        }
+
+        Bulkhead bulkhead = bulkheads.get(workloadClass);
+        bulkhead.acquire();
+        boolean releaseOnClose = false;
+        holding.add(workloadClass);
+        try {
+            T result = task.get();
+            if (result instanceof Stream) {
+                releaseOnClose = true;
+                @SuppressWarnings("unchecked")
+                T stream = (T) releaseWhenDone(bulkhead, (Stream<?>) result);
+                return stream;
+            }
+            return result;
+        } finally {
+            holding.remove(workloadClass);
+            if (!releaseOnClose) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    public void run(WorkloadClass workloadClass, Runnable task) {
+        execute(workloadClass, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public int activeCount(WorkloadClass workloadClass) {
+        return bulkheads.get(workloadClass).active.get();
+    }
+
+    // 0 ~ 1. 1 이면 새 작업은 permit 을 기다린다.
+    public double utilization(WorkloadClass workloadClass) {
+        return bulkheads.get(workloadClass).utilization();
+    }
+
+    // close 와 GC 중 먼저 일어난 쪽이 한 번만 반납한다. cleaner 동작은 stream 을 참조하지 않아야 한다.
+    private static Stream<?> releaseWhenDone(Bulkhead bulkhead, Stream<?> stream) {
+        AtomicBoolean released = new AtomicBoolean();
+        Cleaner.Cleanable cleanable = CLEANER.register(stream, () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.leaked();
+            }
+        });
+        return stream.onClose(() -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+            cleanable.clean();
+        });
+    }
+
+    private static class Bulkhead {
+        private final WorkloadClass workloadClass;
+        private final Semaphore permits;
+        private final int limit;
+        private final long maxWaitNanos;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer wait;
+        private final Counter rejected;
+        private final Counter leaked;
+
+        Bulkhead(WorkloadClass workloadClass, WorkloadProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.workloadClass = workloadClass;
+            this.limit = limit.getMaxConcurrent();
+            this.permits = new Semaphore(this.limit, true);
+            this.maxWaitNanos = limit.getMaxWait().toNanos();
+
+            String tag = workloadClass.name().toLowerCase(Locale.ROOT);
+            this.wait = meterRegistry.timer("workload.wait", "workload", tag);
+            this.rejected = meterRegistry.counter("workload.rejected", "workload", tag);
+            this.leaked = meterRegistry.counter("workload.stream.leaked", "workload", tag);
+            meterRegistry.gauge("workload.active", Tags.of("workload", tag),
+                active, AtomicInteger::get);
+            meterRegistry.gauge("workload.utilization", Tags.of("workload", tag),
+                this, Bulkhead::utilization);
+        }
+
+        double utilization() {
+            return active.get() / (double) limit;
+        }
+
+        void acquire() {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (!acquired) {
+                rejected.increment();
+                throw new RejectedExecutionException(
+                    "No capacity for " + workloadClass + " workload (" + limit + " running)");
+            }
+            active.incrementAndGet();
+        }
+
+        void release() {
+            active.decrementAndGet();
+            permits.release();
+        }
+
+        void leaked() {
+            log.warn("A {} workload Stream was garbage collected without being closed", workloadClass);
+            leaked.increment();
+            release();
+        }
+    }
+}
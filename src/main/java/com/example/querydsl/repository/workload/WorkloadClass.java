@@ -0,0 +1,8 @@
+package com.example.querydsl.repository.workload;
+
+public enum WorkloadClass {
+    // 화면 조회: 짧게 기다리고 빨리 실패한다.
+    INTERACTIVE,
+    // export, bulk update, 시드 데이터: 동시에 쓸 수 있는 커넥션 수를 작게 제한한다.
+    BULK
+}
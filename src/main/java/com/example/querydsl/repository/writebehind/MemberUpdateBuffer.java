@@ -0,0 +1,319 @@
+package com.example.querydsl.repository.writebehind;
+
+import com.example.querydsl.config.InvalidationProperties;
+import com.example.querydsl.repository.invalidation.InvalidationBus;
+import com.example.querydsl.repository.invalidation.InvalidationEvent;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.workload.WorkloadBulkheads;
+import com.example.querydsl.repository.workload.WorkloadClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 같은 member 에 대한 age/team 변경을 메모리에서 합쳐 두었다가 JDBC batch update 로 한 번에 쓴다. (write-behind)
+ *
+ * <ul>
+ *     <li>member id 별로 마지막 값만 남기므로 burst 가 와도 id 당 UPDATE 는 flush 마다 한 번이다.</li>
+ *     <li>flush-interval 마다, 또는 대기 중인 id 가 flush-threshold 이상이면 flush 한다.</li>
+ *     <li>대기 중인 id 는 capacity 개로 제한되고, 가득 차면 submit 이 submit-timeout 까지 기다린 뒤 거절된다.</li>
+ *     <li>무결성 위반(없는 team 등)으로 실패한 batch 는 반씩 나눠 다시 써서 위반한 변경만 버린다.
+ *     그 밖의 실패는 다음 flush 에 다시 쓰고, max-attempts 번 실패한 변경은 버린다.
+ *     버린 변경은 로그와 member.update-buffer.dropped 로 남는다.</li>
+ *     <li>종료 시 남은 변경을 모두 flush 한다.</li>
+ * </ul>
+ *
+ * <p>Hibernate 를 거치지 않으므로 엔티티 리스너(팀 통계 등)는 호출되지 않고, 통계는 주기적인 reconcile 로 맞춰진다.
+ * 같은 이유로 name 에서 나오는 normalized_name/MEMBER_NAME_TRIGRAM 을 맞출 수 없으므로 UPDATE_SQL 은 age, team_id 만 쓴다.
+ * name 변경은 엔티티나 MemberBatchRunner 로 한다.
+ * 무효화 bus 가 있으면 flush 마다 벌크 변경 이벤트 하나를 같은 트랜잭션에서 보낸다.
+ *
+ * <p>샤딩 중에는 member id 의 shard 별로 나눠 shard 마다 따로 쓰고, 실패한 shard 의 변경만 다시 시도한다.
+ * member 는 team 의 shard 에 있어야 하므로 다른 shard 의 team 으로 옮기는 변경은 받지 않는다.
+ */
+@Slf4j
+@Component
+public class MemberUpdateBuffer implements DisposableBean {
+    private static final String UPDATE_SQL =
+        "update MEMBER set age = coalesce(?, age), team_id = coalesce(?, team_id) where id = ?";
+
+    private final ConcurrentMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final WorkloadBulkheads workloadBulkheads;
+
+    private final ObjectProvider<InvalidationBus> invalidationBus;
+
+    private final InvalidationProperties invalidationProperties;
+
+    private final MemberShards memberShards;
+
+    private final Semaphore permits;
+
+    private final int flushThreshold;
+
+    private final Duration submitTimeout;
+
+    private final int maxAttempts;
+
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-update-buffer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Counter submitted;
+
+    private final Counter coalesced;
+
+    private final Counter written;
+
+    private final Counter failed;
+
+    private final Counter droppedInvalid;
+
+    private final Counter droppedRetries;
+
+    public MemberUpdateBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+        WorkloadBulkheads workloadBulkheads, ObjectProvider<InvalidationBus> invalidationBus,
+        InvalidationProperties invalidationProperties, MemberShards memberShards, MeterRegistry meterRegistry,
+        @Value("${member.update-buffer.capacity:10000}") int capacity,
+        @Value("${member.update-buffer.flush-threshold:1000}") int flushThreshold,
+        @Value("${member.update-buffer.submit-timeout:PT5S}") Duration submitTimeout,
+        @Value("${member.update-buffer.max-attempts:10}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workloadBulkheads = workloadBulkheads;
+        this.invalidationBus = invalidationBus;
+        this.invalidationProperties = invalidationProperties;
+        this.memberShards = memberShards;
+        this.permits = new Semaphore(capacity);
+        this.flushThreshold = flushThreshold;
+        this.submitTimeout = submitTimeout;
+        this.maxAttempts = maxAttempts;
+
+        this.submitted = meterRegistry.counter("member.update-buffer.submitted");
+        this.coalesced = meterRegistry.counter("member.update-buffer.coalesced");
+        this.written = meterRegistry.counter("member.update-buffer.written");
+        this.failed = meterRegistry.counter("member.update-buffer.failed");
+        this.droppedInvalid = meterRegistry.counter("member.update-buffer.dropped", "reason", "integrity");
+        this.droppedRetries = meterRegistry.counter("member.update-buffer.dropped", "reason", "retries");
+        meterRegistry.gauge("member.update-buffer.pending", pending, ConcurrentMap::size);
+    }
+
+    public void updateAge(Long memberId, int age) {
+        submit(memberId, new PendingUpdate(memberId, age, null, 0));
+    }
+
+    public void updateTeam(Long memberId, Long teamId) {
+        if (teamId != null && memberShards.shardOfId(memberId) != memberShards.shardOfId(teamId)) {
+            throw new IllegalArgumentException("Member " + memberId + " cannot move to team " + teamId
+                + " on another shard");
+        }
+        submit(memberId, new PendingUpdate(memberId, null, teamId, 0));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void submit(Long memberId, PendingUpdate update) {
+        submitted.increment();
+
+        // 이미 대기 중인 id 는 메모리를 더 쓰지 않으므로 permit 없이 합친다.
+        if (pending.computeIfPresent(memberId, (id, existing) -> existing.overwrittenBy(update)) != null) {
+            coalesced.increment();
+            return;
+        }
+
+        acquire();
+        boolean[] added = {false};
+        pending.compute(memberId, (id, existing) -> {
+            if (existing == null) {
+                added[0] = true;
+                return update;
+            }
+            return existing.overwrittenBy(update);
+        });
+        if (!added[0]) {
+            permits.release();
+            coalesced.increment();
+        }
+
+        if (pending.size() >= flushThreshold) {
+            requestFlush();
+        }
+    }
+
+    private void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+
+        requestFlush();
+        try {
+            if (!permits.tryAcquire(submitTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException(
+                    "Member update buffer is full (" + pending.size() + " pending)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for buffer capacity", e);
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${member.update-buffer.flush-interval:PT1S}")
+    public synchronized void flush() {
+        List<PendingUpdate> batch = new ArrayList<>();
+        for (Long memberId : pending.keySet()) {
+            PendingUpdate update = pending.remove(memberId);
+            if (update != null) {
+                batch.add(update);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, List<PendingUpdate>> byShard = batch.stream()
+            .collect(Collectors.groupingBy(update -> memberShards.shardOfId(update.memberId), TreeMap::new,
+                Collectors.toList()));
+        byShard.forEach(this::write);
+    }
+
+    private void write(int shard, List<PendingUpdate> batch) {
+        try {
+            memberShards.on(shard, () -> {
+                workloadBulkheads.run(WorkloadClass.BULK, () ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.batchUpdate(UPDATE_SQL, batch.stream()
+                            .map(update -> new Object[]{update.age, update.teamId, update.memberId})
+                            .collect(Collectors.toList()));
+                        invalidationBus.ifAvailable(bus -> bus.publish(
+                            List.of(InvalidationEvent.bulkMembers(invalidationProperties.getNodeId()))));
+                    }));
+                return null;
+            });
+            written.increment(batch.size());
+            permits.release(batch.size());
+        } catch (DataIntegrityViolationException e) {
+            // 다시 써도 같은 row 가 실패하므로 반씩 나눠 위반한 변경만 골라낸다. (나머지는 몇 번의 batch 로 쓰인다)
+            failed.increment(batch.size());
+            if (batch.size() == 1) {
+                drop(shard, batch.get(0).failedOnce(), droppedInvalid, e);
+                return;
+            }
+            int half = batch.size() / 2;
+            write(shard, batch.subList(0, half));
+            write(shard, batch.subList(half, batch.size()));
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} member updates on shard {}, retrying on the next flush",
+                batch.size(), shard, e);
+            failed.increment(batch.size());
+            requeue(shard, batch, e);
+        }
+    }
+
+    // 실패한 변경은 그 사이에 들어온 더 새로운 변경 아래에 깔아서 다시 넣는다.
+    private void requeue(int shard, List<PendingUpdate> batch, RuntimeException cause) {
+        for (PendingUpdate failedUpdate : batch) {
+            PendingUpdate update = failedUpdate.failedOnce();
+            if (update.attempts >= maxAttempts) {
+                drop(shard, update, droppedRetries, cause);
+                continue;
+            }
+
+            boolean[] merged = {false};
+            pending.compute(update.memberId, (id, newer) -> {
+                if (newer == null) {
+                    return update;
+                }
+                merged[0] = true;
+                return update.overwrittenBy(newer);
+            });
+            if (merged[0]) {
+                permits.release();
+            }
+        }
+    }
+
+    private void drop(int shard, PendingUpdate update, Counter reason, RuntimeException cause) {
+        log.error("Dropping member update on shard {} after {} attempt(s): member {}, age {}, team {}",
+            shard, update.attempts, update.memberId, update.age, update.teamId, cause);
+        reason.increment();
+        permits.release();
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(submitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("{} member updates could not be written on shutdown", pending.size());
+        }
+    }
+
+    // null 은 "변경 없음"
+    @AllArgsConstructor
+    private static class PendingUpdate {
+        private final Long memberId;
+        private final Integer age;
+        private final Long teamId;
+        // 이 변경을 쓰다 실패한 횟수. 합쳐지면 먼저 들어온 쪽의 횟수를 이어 간다.
+        private final int attempts;
+
+        PendingUpdate overwrittenBy(PendingUpdate newer) {
+            return new PendingUpdate(memberId,
+                newer.age != null ? newer.age : age,
+                newer.teamId != null ? newer.teamId : teamId,
+                attempts);
+        }
+
+        PendingUpdate failedOnce() {
+            return new PendingUpdate(memberId, age, teamId, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.querydsl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 없이 @Tag("benchmark") 테스트에서 쓰는 간단한 측정 도구. ({@code ./gradlew benchmark})
+ */
+public final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    public static double measure(String name, int warmups, int iterations, Runnable task) {
+        for (int i = 0; i < warmups; i++) {
+            task.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        double averageMillis = (System.nanoTime() - start) / (double) iterations
+            / TimeUnit.MILLISECONDS.toNanos(1);
+
+        System.out.printf("[benchmark] %-50s %10.3f ms/op%n", name, averageMillis);
+        return averageMillis;
+    }
+}
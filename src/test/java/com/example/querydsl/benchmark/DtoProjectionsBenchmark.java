@@ -0,0 +1,88 @@
+package com.example.querydsl.benchmark;
+
+import static com.example.querydsl.domain.QMember.member;
+import static com.example.querydsl.domain.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberTeamDto;
+import com.example.querydsl.controller.dto.QMemberTeamDto;
+import com.example.querydsl.repository.support.DtoProjections;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * DB 를 거치지 않고 row 당 DTO 생성 비용(FactoryExpression.newInstance)만 비교한다.
+ */
+@Tag("benchmark")
+class DtoProjectionsBenchmark {
+    private static final int ROW_COUNT = 1_000_000;
+
+    private static final Object[][] ROWS = new Object[ROW_COUNT][];
+
+    static {
+        for (int i = 0; i < ROW_COUNT; i++) {
+            ROWS[i] = new Object[]{(long) i, "member" + i, i % 100, (long) (i % 10), "team" + (i % 10)};
+        }
+    }
+
+    // 만든 DTO 를 버리면 JIT 가 생성을 없앨 수 있으므로 hashCode 를 모두 더해 남긴다.
+    // 모든 경우가 같은 값을 만들어야 하므로 결과가 맞는지도 함께 확인한다.
+    private static long checksum;
+
+    @Test
+    void newInstancePerRow() {
+        long expected = run("QMemberTeamDto (@QueryProjection)",
+            new QMemberTeamDto(member.id, member.name, member.age, team.id, team.name));
+
+        assertThat(run("Projections.constructor",
+            Projections.constructor(MemberTeamDto.class,
+                member.id, member.name, member.age, team.id, team.name)))
+            .isEqualTo(expected);
+        assertThat(run("Projections.bean (setter)",
+            Projections.bean(MemberTeamBean.class,
+                member.id.as("memberId"), member.name.as("memberName"), member.age,
+                team.id.as("teamId"), team.name.as("teamName"))))
+            .isEqualTo(expected);
+        assertThat(run("Projections.fields (field)",
+            Projections.fields(MemberTeamBean.class,
+                member.id.as("memberId"), member.name.as("memberName"), member.age,
+                team.id.as("teamId"), team.name.as("teamName"))))
+            .isEqualTo(expected);
+        assertThat(run("DtoProjections.constructor",
+            DtoProjections.constructor(MemberTeamDto.class,
+                member.id, member.name, member.age, team.id, team.name)))
+            .isEqualTo(expected);
+        assertThat(run("DtoProjections.bean (by constructor parameter name)",
+            DtoProjections.bean(MemberTeamDto.class,
+                member.id.as("memberId"), member.name.as("memberName"), member.age,
+                team.id.as("teamId"), team.name.as("teamName"))))
+            .isEqualTo(expected);
+    }
+
+    private static long run(String name, FactoryExpression<?> projection) {
+        double millis = Benchmarks.measure(name + " x " + ROW_COUNT, 5, 10, () -> {
+            long hash = 0;
+            for (Object[] row : ROWS) {
+                hash += projection.newInstance(row).hashCode();
+            }
+            checksum = hash;
+        });
+        System.out.printf("[benchmark] %-50s %10.1f ns/row%n", name, millis * 1_000_000 / ROW_COUNT);
+        return checksum;
+    }
+
+    // Projections.bean/fields 는 기본 생성자가 필요하다. hashCode 가 MemberTeamDto 와 같도록 필드 순서를 맞춘다.
+    @Data
+    @NoArgsConstructor
+    public static class MemberTeamBean {
+        private Long memberId;
+        private String memberName;
+        private Integer age;
+        private Long teamId;
+        private String teamName;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.querydsl.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// 대시보드 한 화면: 조건 N 개를 GET /v1/members 로 따로(순서대로, 동시에) 보내는 것과 POST /v1/members/search 한 번.
+// HTTP 를 거치므로 데이터는 커밋해서 넣고 직접 지운다.
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "logging.level.org.hibernate.sql=info"
+})
+@ActiveProfiles(value = {"test"})
+class MemberBatchSearchBenchmark {
+    private static final int TEAM_COUNT = 20;
+
+    private static final int MEMBER_COUNT = 20_000;
+
+    private static final int CONDITION_COUNT = Integer.getInteger("benchmark.conditions", 20);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final List<MemberSearchCondition> conditions = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        List<Object[]> teams = new ArrayList<>();
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            teams.add(new Object[]{(long) i + 1, "team" + i, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into TEAM (id, name, normalized_name) values (?, ?, ?)", teams);
+
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add(new Object[]{(long) i + 1, "member" + i, "member" + i, i % 100, (long) (i % TEAM_COUNT) + 1});
+        }
+        jdbcTemplate.batchUpdate(
+            "insert into MEMBER (id, name, normalized_name, age, team_id) values (?, ?, ?, ?, ?)", members);
+
+        // 팀별 위젯: 모양이 같은 조건들이다.
+        for (int i = 0; i < CONDITION_COUNT; i++) {
+            conditions.add(MemberSearchCondition.builder()
+                .teamName("team" + (i % TEAM_COUNT))
+                .ageGoe(i % 90)
+                .ageLoe(i % 90 + 10)
+                .build());
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from MEMBER");
+        jdbcTemplate.update("delete from TEAM");
+    }
+
+    @Test
+    void batchSearchVersusSeparateCalls() throws Exception {
+        String body = objectMapper.writeValueAsString(conditions);
+        List<HttpRequest> separate = conditions.stream()
+            .map(this::v1Request)
+            .collect(Collectors.toList());
+        HttpRequest batch = HttpRequest.newBuilder(uri("/v1/members/search"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+
+        double sequential = Benchmarks.measure(CONDITION_COUNT + " x GET /v1/members (sequential)", 20, 100, () -> {
+            for (HttpRequest request : separate) {
+                assertThat(send(request).statusCode()).isEqualTo(200);
+            }
+        });
+
+        double concurrent = Benchmarks.measure(CONDITION_COUNT + " x GET /v1/members (concurrent)", 20, 100, () -> {
+            CompletableFuture<?>[] responses = separate.stream()
+                .map(request -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> assertThat(response.statusCode()).isEqualTo(200)))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(responses).join();
+        });
+
+        double batched = Benchmarks.measure("POST /v1/members/search (" + CONDITION_COUNT + " conditions)", 20, 100,
+            () -> assertThat(send(batch).statusCode()).isEqualTo(200));
+
+        System.out.printf("[benchmark] speedup %.1fx vs sequential, %.1fx vs concurrent%n",
+            sequential / batched, concurrent / batched);
+    }
+
+    private HttpRequest v1Request(MemberSearchCondition condition) {
+        return HttpRequest.newBuilder(uri("/v1/members?teamName=" + condition.getTeamName()
+                + "&ageGoe=" + condition.getAgeGoe() + "&ageLoe=" + condition.getAgeLoe()))
+            .GET()
+            .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.querydsl.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.repository.MemberCursorRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * MemberCursorRepository 로 1M row 를 읽는 동안 GC 후 heap 사용량이 늘지 않는지 본다.
+ * H2 메모리 DB 에 1M row 를 넣으므로 benchmark task(4g heap)에서만 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "logging.level.org.hibernate.sql=info"
+})
+@ActiveProfiles(value = {"test"})
+class MemberCursorHeapBenchmark {
+    private static final int LARGE_COUNT = 1_000_000;
+
+    @Autowired
+    private MemberCursorRepository memberCursorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from MEMBER");
+    }
+
+    @Test
+    void heapStaysFlatOverMillionRows() {
+        insertMembers();
+
+        List<Long> usedHeap = new ArrayList<>();
+        long processed = memberCursorRepository.forEach(MemberSearchCondition.builder().build(),
+            member -> {
+                if (member.getId() % (LARGE_COUNT / 10) == 0) {
+                    usedHeap.add(usedHeapAfterGc());
+                }
+            });
+
+        assertThat(processed).isEqualTo(LARGE_COUNT);
+        assertThat(usedHeap).hasSize(10);
+
+        // 1M 개의 Member 를 들고 있으면 수백 MB 가 필요하다. 처음 측정값 대비 증가량이 작아야 한다.
+        long growth = usedHeap.stream().mapToLong(Long::longValue).max().getAsLong() - usedHeap.get(0);
+        assertThat(growth)
+            .as("heap growth over %d rows: %.1f MB", LARGE_COUNT, growth / 1024.0 / 1024.0)
+            .isLessThan(32L * 1024 * 1024);
+    }
+
+    // 팀 없이 넣는다.
+    private void insertMembers() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= LARGE_COUNT; i++) {
+            String name = "member" + i;
+            rows.add(new Object[]{(long) i, name, name, i});
+            if (rows.size() == 10_000) {
+                insert(rows);
+            }
+        }
+        insert(rows);
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into MEMBER (id, name, normalized_name, age) values (?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
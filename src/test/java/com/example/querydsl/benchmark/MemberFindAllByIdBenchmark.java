@@ -0,0 +1,71 @@
+package com.example.querydsl.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.MemberJpaRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "logging.level.org.hibernate.sql=info"
+})
+@Transactional
+@ActiveProfiles(value = {"test"})
+class MemberFindAllByIdBenchmark {
+    private static final int MEMBER_COUNT = 5_000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        Team team = new Team("team");
+        em.persist(team);
+
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            Member member = new Member("member" + i, i, team);
+            em.persist(member);
+            ids.add(member.getId());
+        }
+        Collections.shuffle(ids);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void findAllByIdVersusFindById() {
+        double batch = Benchmarks.measure("findAllById(" + MEMBER_COUNT + " ids)", 3, 10, () -> {
+            assertThat(memberJpaRepository.findAllById(ids)).hasSize(MEMBER_COUNT);
+            em.clear();
+        });
+
+        double single = Benchmarks.measure(MEMBER_COUNT + " x findById", 1, 3, () -> {
+            for (Long id : ids) {
+                memberJpaRepository.findById(id).map(Member::getTeamName);
+            }
+            em.clear();
+        });
+
+        System.out.printf("[benchmark] speedup %.1fx%n", single / batch);
+    }
+}
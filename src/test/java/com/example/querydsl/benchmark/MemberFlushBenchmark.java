@@ -0,0 +1,77 @@
+package com.example.querydsl.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Names;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 영속성 컨텍스트에 member 가 많을 때 일부만 바꾼 flush 의 비용.
+ * bytecode enhancement 전후 비교: {@code ./gradlew benchmark} / {@code ./gradlew benchmark -PhibernateEnhance=false}
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "logging.level.org.hibernate.sql=info"
+})
+@Transactional
+@ActiveProfiles(value = {"test"})
+class MemberFlushBenchmark {
+    private static final int DIRTY_COUNT = 100;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flush10k() {
+        measureFlush(10_000);
+    }
+
+    @Test
+    void flush100k() {
+        measureFlush(100_000);
+    }
+
+    private void measureFlush(int managedCount) {
+        insertMembers(managedCount);
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        assertThat(members).hasSize(managedCount);
+
+        String mode = SelfDirtinessTracker.class.isAssignableFrom(Member.class) ? "enhanced" : "snapshot";
+        int[] round = {0};
+        Benchmarks.measure("flush " + DIRTY_COUNT + " dirty / " + managedCount + " managed (" + mode + ")",
+            3, 10, () -> {
+                round[0]++;
+                for (int i = 0; i < DIRTY_COUNT; i++) {
+                    members.get(i).changeAge(round[0]);
+                }
+                em.flush();
+            });
+        Benchmarks.measure("flush 0 dirty / " + managedCount + " managed (" + mode + ")", 3, 10, em::flush);
+    }
+
+    // em.persist 는 IDENTITY 라 row 마다 insert 하므로 JDBC batch 로 넣는다.
+    private void insertMembers(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "member" + i;
+            rows.add(new Object[]{(long) i + 1, name, Names.normalize(name), i});
+        }
+        jdbcTemplate.batchUpdate("insert into MEMBER (id, name, normalized_name, age) values (?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.querydsl.benchmark;
+
+import static com.example.querydsl.domain.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.MemberNameTrigram;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "logging.level.org.hibernate.sql=info"
+})
+@Transactional
+@ActiveProfiles(value = {"test"})
+class MemberNameSearchBenchmark {
+    private static final int MEMBER_COUNT = Integer.getInteger("benchmark.members", 1_000_000);
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String KEYWORD = "qzx";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    void beforeEach() {
+        queryFactory = new JPAQueryFactory(em);
+
+        // 검색어는 약 0.1% 의 이름에만 포함된다.
+        Random random = new Random(42);
+        List<Object[]> members = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= MEMBER_COUNT; i++) {
+            String name = randomName(random) + (i % 1000 == 0 ? KEYWORD : "") + randomName(random);
+            members.add(new Object[]{(long) i, name, i % 100});
+
+            if (members.size() == BATCH_SIZE || i == MEMBER_COUNT) {
+                insert(members);
+                members.clear();
+            }
+        }
+    }
+
+    @Test
+    void trigramVersusContains() {
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .memberNameLike(KEYWORD)
+            .build();
+
+        double trigram = Benchmarks.measure("memberNameLike (trigram) over " + MEMBER_COUNT, 3, 10,
+            () -> assertThat(count(condition.memberNameLike())).isEqualTo(MEMBER_COUNT / 1000));
+
+        double scan = Benchmarks.measure("name.contains (full scan) over " + MEMBER_COUNT, 1, 5,
+            () -> assertThat(count(member.name.contains(KEYWORD))).isEqualTo(MEMBER_COUNT / 1000));
+
+        System.out.printf("[benchmark] speedup %.1fx%n", scan / trigram);
+    }
+
+    private long count(Predicate predicate) {
+        return queryFactory.select(member.count()).from(member).where(predicate).fetchOne();
+    }
+
+    private void insert(List<Object[]> members) {
+        jdbcTemplate.batchUpdate("insert into MEMBER (id, name, age) values (?, ?, ?)", members);
+
+        List<Object[]> trigrams = new ArrayList<>();
+        for (Object[] row : members) {
+            for (String trigram : MemberNameTrigram.trigrams((String) row[1])) {
+                trigrams.add(new Object[]{trigram, row[0]});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "insert into MEMBER_NAME_TRIGRAM (trigram, member_id) values (?, ?)", trigrams);
+    }
+
+    // 검색어(qzx)가 우연히 만들어지지 않도록 q, z, x 는 쓰지 않는다.
+    private static String randomName(Random random) {
+        String alphabet = "abcdefghijklmnoprstuvwy";
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.controller.dto.MemberTeamColumns;
+import com.example.querydsl.controller.dto.MemberTeamDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 100k row 를 {@code List<MemberTeamDto>} 와 MemberTeamColumns 로 들고 있을 때의 heap 사용량과 직렬화 시간을 비교한다.
+ * heap 은 GC 후 used memory 차이로 잰다. (JOL 없이 보는 근사치)
+ */
+@Tag("benchmark")
+class MemberTeamColumnsBenchmark {
+    private static final int ROW_COUNT = 100_000;
+
+    private static final int TEAM_COUNT = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void retainedHeap() {
+        long list = retained(MemberTeamColumnsBenchmark::list);
+        long columns = retained(MemberTeamColumnsBenchmark::columns);
+
+        System.out.printf("[benchmark] %-50s %10.1f bytes/row%n", "List<MemberTeamDto>", list / (double) ROW_COUNT);
+        System.out.printf("[benchmark] %-50s %10.1f bytes/row%n", "MemberTeamColumns", columns / (double) ROW_COUNT);
+        System.out.printf("[benchmark] heap ratio %.1fx%n", list / (double) columns);
+    }
+
+    @Test
+    void serialize() {
+        List<MemberTeamDto> list = list();
+        MemberTeamColumns columns = columns();
+
+        Benchmarks.measure("serialize List<MemberTeamDto> x " + ROW_COUNT, 5, 20,
+            () -> write(list));
+        Benchmarks.measure("serialize MemberTeamColumns x " + ROW_COUNT, 5, 20,
+            () -> write(columns));
+    }
+
+    // 이름 문자열은 두 방식 모두 같은 크기로 들어가므로 측정 대상에 포함한다.
+    private static List<MemberTeamDto> list() {
+        List<MemberTeamDto> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            long teamId = i % TEAM_COUNT;
+            rows.add(new MemberTeamDto((long) i, "member" + i, i % 100, teamId, teamName(teamId)));
+        }
+        return rows;
+    }
+
+    private static MemberTeamColumns columns() {
+        MemberTeamColumns.Builder columns = MemberTeamColumns.builder();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            long teamId = i % TEAM_COUNT;
+            columns.add(i, "member" + i, i % 100, teamId, teamName(teamId));
+        }
+        return columns.build();
+    }
+
+    // DB 에서 읽을 때처럼 row 마다 새 String 을 만든다. (사전 인코딩 효과가 측정에 드러나도록)
+    private static String teamName(long teamId) {
+        return "team" + teamId;
+    }
+
+    private static long retained(Supplier<Object> supplier) {
+        long before = usedHeap();
+        Object result = supplier.get();
+        long after = usedHeap();
+        // 측정이 끝날 때까지 결과가 수거되지 않도록 한다.
+        Reference.reachabilityFence(result);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void write(Object value) {
+        try {
+            objectMapper.writeValue(OutputStream.nullOutputStream(), value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.writebehind.MemberUpdateBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 같은 member 에 몰리는 age/team 변경 burst 를
+ * 이벤트마다 em.find + dirty checking + commit 하는 방식과 MemberUpdateBuffer 로 비교한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "logging.level.org.hibernate.sql=info",
+    "member.update-buffer.flush-interval=PT1H"
+})
+@ActiveProfiles(value = {"test"})
+class MemberUpdateBufferBenchmark {
+    private static final int MEMBER_COUNT = 1_000;
+
+    private static final int EVENT_COUNT = 20_000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MemberUpdateBuffer memberUpdateBuffer;
+
+    private final List<long[]> events = new ArrayList<>();
+
+    private Long[] teamIds;
+
+    @BeforeEach
+    void beforeEach() {
+        List<Long> memberIds = new ArrayList<>();
+        teamIds = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                Member member = new Member("member" + i, 20, teamA);
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+            return new Long[]{teamA.getId(), teamB.getId()};
+        });
+
+        // 소수의 member 에 몰리도록 제곱 분포로 고른다. {memberId, age, team index}
+        Random random = new Random(42);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            double skewed = Math.pow(random.nextDouble(), 2);
+            events.add(new long[]{memberIds.get((int) (skewed * MEMBER_COUNT)), random.nextInt(100),
+                random.nextInt(2)});
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void perEventVersusWriteBehind() {
+        double perEvent = Benchmarks.measure("per-event find + dirty checking x " + EVENT_COUNT, 1, 3,
+            () -> events.forEach(event -> transactionTemplate.executeWithoutResult(status -> {
+                Member member = em.find(Member.class, event[0]);
+                member.changeAge((int) event[1]);
+                member.changeTeam(em.getReference(Team.class, teamIds[(int) event[2]]));
+            })));
+
+        double writeBehind = Benchmarks.measure("MemberUpdateBuffer x " + EVENT_COUNT, 1, 3, () -> {
+            events.forEach(event -> {
+                memberUpdateBuffer.updateAge(event[0], (int) event[1]);
+                memberUpdateBuffer.updateTeam(event[0], teamIds[(int) event[2]]);
+            });
+            memberUpdateBuffer.flush();
+        });
+
+        System.out.printf("[benchmark] events/s per-event %.0f, write-behind %.0f (%.1fx)%n",
+            EVENT_COUNT * 1000 / perEvent, EVENT_COUNT * 1000 / writeBehind, perEvent / writeBehind);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.config.SqlSamplingProperties;
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DecoratedDataSource;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * statement 당 오버헤드: proxy 없음 / p6spy + 샘플링(1/1000) / p6spy + 전부 기록(1/1).
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "decorator.datasource.p6spy.enable-logging=false",
+    "sql-sampling.enabled=true",
+    "sql-sampling.slow-threshold=1h",
+    "logging.level.sql.sample=off"
+})
+@ActiveProfiles(value = {"test"})
+class SqlSamplingBenchmark {
+    private static final int STATEMENTS = 20_000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SqlSamplingProperties properties;
+
+    @Test
+    void perStatementOverhead() {
+        JdbcTemplate raw = new JdbcTemplate(((DecoratedDataSource) dataSource).getRealDataSource());
+        JdbcTemplate decorated = new JdbcTemplate(dataSource);
+
+        run("no proxy", raw);
+
+        properties.setSampleRate(1000);
+        run("p6spy, sample 1/1000", decorated);
+
+        properties.setSampleRate(1);
+        run("p6spy, sample 1/1", decorated);
+    }
+
+    private static void run(String name, JdbcTemplate jdbcTemplate) {
+        double millis = Benchmarks.measure(name + " x " + STATEMENTS, 3, 10, () -> {
+            for (int i = 0; i < STATEMENTS; i++) {
+                jdbcTemplate.queryForObject("select 1", Integer.class);
+            }
+        });
+        System.out.printf("[benchmark] %-50s %10.2f us/statement%n", name, millis * 1000 / STATEMENTS);
+    }
+}
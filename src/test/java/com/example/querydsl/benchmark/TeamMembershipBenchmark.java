@@ -0,0 +1,34 @@
+package com.example.querydsl.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("benchmark")
+class TeamMembershipBenchmark {
+    private static final int MEMBER_COUNT = 100_000;
+
+    @Test
+    void moveMembersBetweenTeams() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        List<Member> members = new ArrayList<>(MEMBER_COUNT);
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add(new Member("member" + i, i, teamA));
+        }
+
+        Benchmarks.measure("move " + MEMBER_COUNT + " members A -> B -> A", 2, 5, () -> {
+            members.forEach(member -> member.changeTeam(teamB));
+            members.forEach(member -> member.changeTeam(teamA));
+        });
+
+        assertThat(teamA.getMembers()).hasSize(MEMBER_COUNT);
+        assertThat(teamB.getMembers()).isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.querydsl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.StatementInformation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SampledSqlEventListenerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StatementInformation statement = mock(StatementInformation.class);
+
+    private SampledSqlEventListener listener;
+
+    @BeforeEach
+    void beforeEach() {
+        SqlSamplingProperties properties = new SqlSamplingProperties();
+        properties.setSampleRate(10);
+        properties.setSlowThreshold(Duration.ofMillis(50));
+
+        ConnectionInformation connection = mock(ConnectionInformation.class);
+        when(connection.getConnectionId()).thenReturn(1);
+        when(statement.getConnectionInformation()).thenReturn(connection);
+        when(statement.getSql()).thenReturn("select 1");
+
+        listener = new SampledSqlEventListener(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        listener.destroy();
+    }
+
+    @Test
+    @DisplayName("samplesOneInN")
+    void samplesOneInN() {
+        for (int i = 0; i < 100; i++) {
+            listener.onAfterAnyExecute(statement, TimeUnit.MILLISECONDS.toNanos(1), null);
+        }
+
+        assertThat(sampled()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("alwaysSamplesSlowAndFailedStatements")
+    void alwaysSamplesSlowAndFailedStatements() {
+        listener.onAfterAnyExecute(statement, TimeUnit.MILLISECONDS.toNanos(50), null);
+        listener.onAfterAnyExecute(statement, TimeUnit.MILLISECONDS.toNanos(1), new SQLException("boom"));
+
+        assertThat(sampled()).isEqualTo(2);
+    }
+
+    private double sampled() {
+        return meterRegistry.get("sql.sampling.sampled").counter().count();
+    }
+}
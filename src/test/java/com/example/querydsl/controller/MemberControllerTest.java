@@ -0,0 +1,101 @@
+package com.example.querydsl.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles(value = {"test"})
+class MemberControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 6; i++) {
+            em.persist(new Member("member" + i, 10 + i * 5, i % 2 == 0 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("v5AssemblesTeamsWithOneQuery")
+    void v5AssemblesTeamsWithOneQuery() throws Exception {
+        mockMvc.perform(get("/v5/members").param("sort", "id"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(6))
+            .andExpect(jsonPath("$.content[0].memberName").value("member0"))
+            .andExpect(jsonPath("$.content[0].teamName").value("teamA"))
+            .andExpect(jsonPath("$.content[1].teamName").value("teamB"));
+
+        // member 페이지 1번 (마지막 페이지라 count 생략) + 팀 IN 조회 1번
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("v5BindsAgeRangeAndTeamName")
+    void v5BindsAgeRangeAndTeamName() throws Exception {
+        // age 가 여러 개면 최소~최대 범위, team.name 은 대소문자를 구분하지 않는다.
+        mockMvc.perform(get("/v5/members")
+                .param("age", "35", "15")
+                .param("team.name", "TEAMB")
+                .param("sort", "age"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.content[*].memberName").value(contains("member1", "member3", "member5")))
+            .andExpect(jsonPath("$.content[*].teamName").value(everyItem(is("teamB"))));
+
+        mockMvc.perform(get("/v5/members").param("age", "20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].memberName").value(contains("member2")));
+    }
+
+    @Test
+    @DisplayName("v5RejectsUnboundParameters")
+    void v5RejectsUnboundParameters() throws Exception {
+        // 바인딩되지 않는 파라미터를 무시하면 전체 조회가 되므로 400 으로 거절한다.
+        mockMvc.perform(get("/v5/members").param("age", "20").param("id", "1"))
+            .andExpect(status().isBadRequest())
+            .andExpect(status().reason(containsString("[id]")));
+        mockMvc.perform(get("/v5/members").param("team.id", "1").param("username", "member1"))
+            .andExpect(status().isBadRequest())
+            .andExpect(status().reason(containsString("[team.id, username]")));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
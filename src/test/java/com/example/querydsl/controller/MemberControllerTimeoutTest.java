@@ -0,0 +1,125 @@
+package com.example.querydsl.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.querydsl.repository.MemberJpaRepository;
+import com.example.querydsl.repository.support.QueryCancellation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(value = {"test"})
+class MemberControllerTimeoutTest {
+    // 1e10 row 를 세는 쿼리: 취소하지 않으면 끝나지 않는다.
+    private static final String SLOW_QUERY =
+        "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private MemberJpaRepository memberJpaRepository;
+
+    @Test
+    @DisplayName("timedOutRequestCancelsQueryAndReturns503")
+    void timedOutRequestCancelsQueryAndReturns503() throws Exception {
+        // Given: /v1/members 의 조회가 끝나지 않는 쿼리를 실행한다.
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        given(memberJpaRepository.searchByCondition(any())).willAnswer(invocation -> {
+            try {
+                jdbcTemplate.queryForObject(SLOW_QUERY, Long.class);
+                return List.of();
+            } catch (RuntimeException e) {
+                failure.set(e);
+                throw e;
+            } finally {
+                finished.countDown();
+            }
+        });
+        double cancelled = cancelledCount();
+
+        MvcResult result = mockMvc.perform(get("/v1/members"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        QueryCancellation cancellation =
+            (QueryCancellation) result.getRequest().getAttribute(QueryCancellation.REQUEST_ATTRIBUTE);
+        // Statement 가 등록된 직후에는 H2 가 아직 실행 전이라 cancel 이 무시되므로 세션 목록에 보일 때까지 기다린다.
+        for (int i = 0; i < 100 && !slowQueryExecuting(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(cancellation.runningCount()).isEqualTo(1);
+
+        // When: spring.mvc.async.request-timeout 이 지난 것처럼 컨테이너가 timeout 을 알린다.
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        // Then: 실행 중이던 Statement 가 취소되고 503 + Retry-After 로 응답한다.
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(failure.get()).isInstanceOf(DataAccessException.class);
+        assertThat(cancelledCount() - cancelled).isEqualTo(1);
+
+        awaitAsyncResult(result);
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    // finished 는 Callable 이 결과를 넘기기 전에 열리므로 MockMvc 가 결과를 받을 때까지 기다린다.
+    private static void awaitAsyncResult(MvcResult result) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try {
+                result.getAsyncResult(0);
+                return;
+            } catch (IllegalStateException e) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private boolean slowQueryExecuting() {
+        return jdbcTemplate.queryForObject(
+            "select count(*) from information_schema.sessions where executing_statement = ?",
+            Long.class, SLOW_QUERY) > 0;
+    }
+
+    private double cancelledCount() {
+        Counter counter = meterRegistry.find("query.cancelled").tag("reason", "timeout").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.querydsl.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DecoratedDataSource;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// p6spy proxy 를 걷어낸 설정(decorator.datasource.enabled=false)에서도 같은 취소 테스트가 통과해야 한다.
+@SpringBootTest(properties = "decorator.datasource.enabled=false")
+class MemberControllerTimeoutWithoutDecoratorTest extends MemberControllerTimeoutTest {
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("dataSourceIsNotDecorated")
+    void dataSourceIsNotDecorated() {
+        assertThat(dataSource).isNotInstanceOf(DecoratedDataSource.class);
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.querydsl.domain;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -49,4 +52,62 @@ class MemberTest {
             System.out.println("member.getTeam() = " + member.getTeam());
         });
     }
+
+    @Test
+    @DisplayName("changeTeam")
+    void changeTeam() {
+        // Given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Member member1 = new Member("member1", 10, teamA);
+
+        // When
+        member1.changeTeam(teamB);
+
+        // Then
+        assertThat(member1.getTeam()).isSameAs(teamB);
+        assertThat(teamA.getMembers()).isEmpty();
+        assertThat(teamB.getMembers()).containsExactly(member1);
+
+        // When
+        teamB.removeMember(member1);
+
+        // Then
+        assertThat(member1.getTeam()).isNull();
+        assertThat(teamB.getMembers()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("changeTeamWithoutInitializingMembers")
+    void changeTeamWithoutInitializingMembers() {
+        // Given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+
+        em.flush();
+        em.clear();
+
+        // When
+        Member findMember = em.find(Member.class, member1.getId());
+        Team findTeamB = em.find(Team.class, teamB.getId());
+        findMember.changeTeam(findTeamB);
+
+        // Then
+        assertThat(Hibernate.isInitialized(em.getReference(Team.class, teamA.getId()).getMembers()))
+            .isFalse();
+        assertThat(Hibernate.isInitialized(findTeamB.getMembers())).isFalse();
+
+        em.flush();
+        em.clear();
+
+        assertThat(em.find(Team.class, teamB.getId()).getMembers())
+            .extracting(Member::getName)
+            .containsExactly("member1");
+        assertThat(em.find(Team.class, teamA.getId()).getMembers()).isEmpty();
+    }
 }
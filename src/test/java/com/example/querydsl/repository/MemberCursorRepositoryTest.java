@@ -0,0 +1,72 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.Member;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// StatelessSession 은 별도 커넥션을 쓰므로 데이터는 커밋해서 넣고 직접 지운다.
+@SpringBootTest
+@ActiveProfiles(value = {"test"})
+class MemberCursorRepositoryTest {
+    @Autowired
+    private MemberCursorRepository memberCursorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from MEMBER");
+        jdbcTemplate.update("delete from TEAM");
+    }
+
+    @Test
+    @DisplayName("streamAppliesCondition")
+    void streamAppliesCondition() {
+        jdbcTemplate.update("insert into TEAM (id, name, normalized_name) values (1, 'teamA', 'teama')");
+        jdbcTemplate.update("insert into TEAM (id, name, normalized_name) values (2, 'teamB', 'teamb')");
+        insertMembers(10, 2);
+
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .teamName("teamB")
+            .ageGoe(3)
+            .build();
+
+        List<String> names;
+        try (Stream<Member> members = memberCursorRepository.stream(condition, 2)) {
+            names = members.map(Member::getName).collect(Collectors.toList());
+        }
+
+        assertThat(names).containsExactlyInAnyOrder("member3", "member5", "member7", "member9");
+    }
+
+    private void insertMembers(int count, int teamCount) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String name = "member" + i;
+            rows.add(new Object[]{(long) i, name, name, i, (long) (i % teamCount) + 1});
+            if (rows.size() == 10_000) {
+                insert(rows);
+            }
+        }
+        insert(rows);
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(
+            "insert into MEMBER (id, name, normalized_name, age, team_id) values (?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+}
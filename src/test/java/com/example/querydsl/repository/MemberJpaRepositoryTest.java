@@ -1,11 +1,15 @@
 package com.example.querydsl.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.controller.dto.MemberTeamColumns;
 import com.example.querydsl.controller.dto.MemberTeamDto;
 import com.example.querydsl.domain.Member;
 import com.example.querydsl.domain.Team;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import javax.persistence.EntityManager;
@@ -25,6 +29,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     private MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Test
     void basicTest() {
         Member member = new Member("member1", 10);
@@ -150,4 +157,99 @@ class MemberJpaRepositoryTest {
             .extracting(Member::getName)
             .containsExactly("member4");
     }
+
+    @Test
+    void findAllById() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+
+        em.flush();
+        em.clear();
+
+        List<MemberTeamDto> result = memberJpaRepository.findAllById(Arrays.asList(
+            member3.getId(), -1L, member1.getId(), member3.getId(), member2.getId()));
+
+        assertThat(result)
+            .extracting(MemberTeamDto::getMemberName, MemberTeamDto::getTeamName)
+            .containsExactly(
+                tuple("member3", null),
+                tuple("member1", "teamA"),
+                tuple("member2", "teamA"));
+    }
+
+    @Test
+    void searchColumns() throws Exception {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamB));
+        em.persist(new Member("member3", 30, teamA));
+        em.persist(new Member("member4", null));
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = MemberSearchCondition.builder().build();
+
+        List<MemberTeamDto> expected = memberJpaRepository.searchByCondition(condition);
+        MemberTeamColumns columns = memberJpaRepository.searchColumns(condition);
+
+        assertThat(columns.asList()).containsExactlyElementsOf(expected);
+        assertThat(objectMapper.writeValueAsString(columns))
+            .isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+
+    @Test
+    void searchByConditions() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("Member5", null, null));
+
+        em.flush();
+        em.clear();
+
+        // 같은 모양(teamName, ageGoe)끼리는 한 쿼리로 묶이고, 결과가 겹치거나 없는 조건도 있다.
+        List<MemberSearchCondition> conditions = List.of(
+            MemberSearchCondition.builder().teamName("teamA").ageGoe(10).build(),
+            MemberSearchCondition.builder().teamName("teamB").ageGoe(35).build(),
+            MemberSearchCondition.builder().memberNameLike("ember").ageLoe(20).build(),
+            MemberSearchCondition.builder().teamName("teamA").ageGoe(20).build(),
+            MemberSearchCondition.builder().teamName("teamC").ageGoe(0).build(),
+            MemberSearchCondition.builder().teamName("teamA").ageGoe(10).build(),
+            MemberSearchCondition.builder().memberNamePrefix("MEMBER").ignoreCase(true).build(),
+            MemberSearchCondition.builder().memberNamePrefix("member5").ignoreCase(true).build());
+
+        List<List<MemberTeamDto>> result = memberJpaRepository.searchByConditions(conditions);
+
+        assertThat(result).hasSameSizeAs(conditions);
+        for (int i = 0; i < conditions.size(); i++) {
+            assertThat(result.get(i))
+                .containsExactlyInAnyOrderElementsOf(memberJpaRepository.searchByCondition(conditions.get(i)));
+        }
+        assertThat(result.get(0)).extracting(MemberTeamDto::getMemberName)
+            .containsExactlyInAnyOrder("member1", "member2");
+        assertThat(result.get(1)).extracting(MemberTeamDto::getMemberName).containsExactly("member4");
+        assertThat(result.get(4)).isEmpty();
+        // 묶인 조건의 결과는 Java 에서 나누므로 대소문자와 NULL 컬럼도 SQL 과 같게 판단해야 한다.
+        assertThat(result.get(6)).hasSize(5);
+        assertThat(result.get(7)).extracting(MemberTeamDto::getMemberName).containsExactly("Member5");
+    }
 }
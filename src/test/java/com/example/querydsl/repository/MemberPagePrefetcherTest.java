@@ -0,0 +1,86 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.controller.dto.MemberTeamDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// prefetch 는 다른 스레드에서 조회하므로 데이터는 커밋해서 넣고 직접 지운다.
+@SpringBootTest(properties = "member.prefetch.enabled=true")
+@ActiveProfiles(value = {"test"})
+class MemberPagePrefetcherTest {
+    @Autowired
+    private CoalescingMemberRepository coalescingMemberRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from MEMBER");
+        jdbcTemplate.update("delete from TEAM");
+    }
+
+    @Test
+    @DisplayName("sequentialPagesAreAllServedFromPrefetch")
+    void sequentialPagesAreAllServedFromPrefetch() throws InterruptedException {
+        // Given: ageGoe 20 이면 member2..member10 의 9 명, 2 명씩 5 페이지
+        jdbcTemplate.update("insert into TEAM (id, name, normalized_name) values (1, 'teamA', 'teama')");
+        for (int i = 1; i <= 10; i++) {
+            jdbcTemplate.update("insert into MEMBER (id, name, normalized_name, age, team_id) values (?, ?, ?, ?, 1)",
+                i, "member" + i, "member" + i, i * 10);
+        }
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .teamName("teamA")
+            .ageGoe(20)
+            .build();
+
+        // When / Then: 첫 페이지 이후로는 모든 페이지가 미리 읽어 둔 페이지로 응답된다.
+        for (int number = 0; number < 5; number++) {
+            double loaded = counter("member.prefetch.loaded");
+            double hit = counter("member.prefetch.hit");
+
+            Page<MemberTeamDto> page = coalescingMemberRepository.searchPageSimple(condition,
+                PageRequest.of(number, 2));
+
+            Page<MemberTeamDto> expected = memberRepository.searchPageSimple(condition, PageRequest.of(number, 2));
+            assertThat(page.getContent()).isEqualTo(expected.getContent());
+            assertThat(page.getTotalElements()).isEqualTo(expected.getTotalElements());
+            assertThat(page.getNumber()).isEqualTo(number);
+            if (number > 0) {
+                assertThat(counter("member.prefetch.hit")).as("hit on page %d", number).isEqualTo(hit + 1);
+            }
+
+            if (page.hasNext()) {
+                awaitLoaded(loaded);
+            }
+        }
+    }
+
+    private void awaitLoaded(double loaded) throws InterruptedException {
+        for (int i = 0; i < 100 && counter("member.prefetch.loaded") == loaded; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(counter("member.prefetch.loaded")).isGreaterThan(loaded);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.config.StartupConfig;
+import com.example.querydsl.repository.search.MemberNameTrigramEventListener;
+import com.example.querydsl.repository.writebehind.MemberUpdateBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {"startup.warm-up.enabled=true", "startup.warm-up.iterations=1"})
+@ActiveProfiles(value = {"test"})
+class MemberQueryWarmUpTest {
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private MemberQueryWarmUp memberQueryWarmUp;
+
+    @Test
+    @DisplayName("readyAfterWarmUp")
+    void readyAfterWarmUp() {
+        // warm-up 이 실패하면 context 가 뜨지 않는다.
+        assertThat(memberQueryWarmUp).isNotNull();
+        assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    @DisplayName("lazyInitializationExcludesBeansWithSideEffects")
+    void lazyInitializationExcludesBeansWithSideEffects() {
+        LazyInitializationExcludeFilter listeners = StartupConfig.hibernateEventListenerExcludeFilter();
+        LazyInitializationExcludeFilter scheduled = StartupConfig.scheduledBeanExcludeFilter();
+
+        assertThat(listeners.isExcluded("listener", null, MemberNameTrigramEventListener.class)).isTrue();
+        assertThat(scheduled.isExcluded("buffer", null, MemberUpdateBuffer.class)).isTrue();
+        assertThat(scheduled.isExcluded("prefetcher", null, MemberPagePrefetcher.class)).isTrue();
+        assertThat(scheduled.isExcluded("warmUp", null, MemberQueryWarmUp.class)).isFalse();
+        assertThat(listeners.isExcluded("warmUp", null, MemberQueryWarmUp.class)).isFalse();
+    }
+}
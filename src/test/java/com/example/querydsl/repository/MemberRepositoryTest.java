@@ -7,6 +7,8 @@ import com.example.querydsl.controller.dto.MemberSearchCondition;
 import com.example.querydsl.controller.dto.MemberTeamDto;
 import com.example.querydsl.domain.Member;
 import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.support.ExecutedSql;
+import com.querydsl.core.types.Predicate;
 import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -17,10 +19,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
 @SpringBootTest
+@Import(ExecutedSql.class)
 @Transactional
 @ActiveProfiles(value = {"test"})
 @TestMethodOrder(value = MethodOrderer.OrderAnnotation.class)
@@ -31,6 +45,12 @@ class MemberRepositoryTest {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private QuerydslBindingsFactory querydslBindingsFactory;
+
+    @Autowired
+    private ExecutedSql executedSql;
+
     @Test
     @DisplayName("basicTest")
     @Order(1)
@@ -89,7 +109,7 @@ class MemberRepositoryTest {
 
     @Test
     @DisplayName("querydslPredicateExecutor")
-    @Order(2)
+    @Order(3)
     void querydslPredicateExecutor() {
         // Given
         Team teamA = new Team("teamA");
@@ -118,4 +138,142 @@ class MemberRepositoryTest {
             .extracting(Member::getName)
             .containsExactly("member1");
     }
+
+    @Test
+    @DisplayName("querydslPredicateBinding")
+    @Order(4)
+    void querydslPredicateBinding() {
+        // Given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        // When: /v5/members?age=15&age=35&team.name=TEAMB&id=1 과 같은 요청
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        parameters.add("age", "35");
+        parameters.add("age", "15");
+        parameters.add("team.name", "TEAMB");
+        parameters.add("id", "1");
+
+        QuerydslBindings bindings = querydslBindingsFactory.createBindingsFor(
+            ClassTypeInformation.from(Member.class), MemberRepository.class);
+        Predicate predicate = new QuerydslPredicateBuilder(DefaultConversionService.getSharedInstance(),
+            SimpleEntityPathResolver.INSTANCE)
+            .getPredicate(ClassTypeInformation.from(Member.class), parameters, bindings);
+        Page<Member> result = memberRepository.findAll(predicate, PageRequest.of(0, 10));
+
+        // Then: age 는 15~35 범위, team.name 은 대소문자 구분 없이, 목록에 없는 id 는 바인딩되지 않는다.
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent()).extracting(Member::getName)
+            .containsExactly("member3");
+    }
+
+    @Test
+    @DisplayName("searchByMemberNameLike")
+    @Order(5)
+    void searchByMemberNameLike() {
+        // Given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("alice", 10, teamA));
+        em.persist(new Member("Malice", 20, teamA));
+        em.persist(new Member("bob", 30, teamA));
+        Member removed = new Member("alicia", 40, teamA);
+        em.persist(removed);
+
+        em.remove(removed);
+        em.flush();
+        em.clear();
+
+        // When
+        List<MemberTeamDto> like = memberRepository.search(
+            MemberSearchCondition.builder().memberNameLike("lice").build());
+        List<MemberTeamDto> shortLike = memberRepository.search(
+            MemberSearchCondition.builder().memberNameLike("ob").build());
+        List<MemberTeamDto> prefix = memberRepository.search(
+            MemberSearchCondition.builder().memberNamePrefix("ali").build());
+
+        // Then
+        assertThat(like).extracting(MemberTeamDto::getMemberName)
+            .containsExactlyInAnyOrder("alice", "Malice");
+        assertThat(shortLike).extracting(MemberTeamDto::getMemberName)
+            .containsExactly("bob");
+        assertThat(prefix).extracting(MemberTeamDto::getMemberName)
+            .containsExactly("alice");
+        assertThat(em.createQuery(
+                "select count(t) from MemberNameTrigram t where t.memberId = :memberId", Long.class)
+            .setParameter("memberId", removed.getId())
+            .getSingleResult()).isZero();
+    }
+
+    @Test
+    @DisplayName("searchIgnoreCase")
+    @Order(6)
+    void searchIgnoreCase() {
+        // Given
+        Team teamA = new Team("TeamA");
+        em.persist(teamA);
+
+        em.persist(new Member("Alice", 10, teamA));
+        em.persist(new Member("ALICIA", 20, teamA));
+        em.persist(new Member("bob", 30, teamA));
+
+        em.flush();
+        em.clear();
+
+        // When
+        List<MemberTeamDto> byName = memberRepository.search(MemberSearchCondition.builder()
+            .memberName("alice")
+            .teamName("teama")
+            .ignoreCase(true)
+            .build());
+        List<MemberTeamDto> byPrefix = memberRepository.search(MemberSearchCondition.builder()
+            .memberNamePrefix("ali")
+            .ignoreCase(true)
+            .build());
+        List<MemberTeamDto> caseSensitive = memberRepository.search(MemberSearchCondition.builder()
+            .memberName("alice")
+            .build());
+
+        // Then
+        assertThat(byName).extracting(MemberTeamDto::getMemberName)
+            .containsExactly("Alice");
+        assertThat(byPrefix).extracting(MemberTeamDto::getMemberName)
+            .containsExactlyInAnyOrder("Alice", "ALICIA");
+        assertThat(caseSensitive).isEmpty();
+    }
+
+    @Test
+    @DisplayName("normalizedNameSearchUsesIndex")
+    @Order(7)
+    void normalizedNameSearchUsesIndex() {
+        // 직접 쓴 SQL 이 아니라 Querydsl / Spring Data 가 만든 SQL 의 실행 계획을 본다.
+        executedSql.clear();
+        memberRepository.search(MemberSearchCondition.builder()
+            .memberName("Alice")
+            .ignoreCase(true)
+            .build());
+        String equalityPlan = executedSql.explainLast(em);
+
+        memberRepository.search(MemberSearchCondition.builder()
+            .memberNamePrefix("ALI")
+            .ignoreCase(true)
+            .build());
+        String prefixPlan = executedSql.explainLast(em);
+
+        // /v5/members?age=15&age=35 가 바인딩하는 조건
+        memberRepository.findAll(member.age.between(15, 35), PageRequest.of(0, 10));
+        String agePlan = executedSql.explainLast(em);
+
+        assertThat(equalityPlan).contains("IDX_MEMBER_NORMALIZED_NAME");
+        assertThat(prefixPlan).contains("IDX_MEMBER_NORMALIZED_NAME");
+        assertThat(agePlan).contains("IDX_MEMBER_AGE");
+    }
 }
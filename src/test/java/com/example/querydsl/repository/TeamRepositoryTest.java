@@ -0,0 +1,58 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.support.ExecutedSql;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Import(ExecutedSql.class)
+@Transactional
+@ActiveProfiles(value = {"test"})
+class TeamRepositoryTest {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ExecutedSql executedSql;
+
+    @Test
+    @DisplayName("searchByNameIgnoreCase")
+    void searchByNameIgnoreCase() {
+        // Given
+        Team teamA = new Team("TeamA");
+        teamRepository.save(teamA);
+        teamRepository.save(new Team("teamB"));
+
+        // When
+        List<Team> result = teamRepository.searchByNameIgnoreCase("TEAMA");
+
+        // Then
+        assertThat(result).containsExactly(teamA);
+        assertThat(teamRepository.findByName("teama")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("normalizedNameLookupUsesIndex")
+    void normalizedNameLookupUsesIndex() {
+        // findByNormalizedName 이 실제로 만든 SQL 의 실행 계획
+        executedSql.clear();
+        teamRepository.searchByNameIgnoreCase("TeamA");
+        String plan = executedSql.explainLast(em);
+
+        assertThat(plan).contains("IDX_TEAM_NORMALIZED_NAME");
+    }
+}
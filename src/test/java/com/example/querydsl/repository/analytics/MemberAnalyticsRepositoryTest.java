@@ -0,0 +1,97 @@
+package com.example.querydsl.repository.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.querydsl.controller.dto.MemberRankDto;
+import com.example.querydsl.controller.dto.MemberRunningTotalDto;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles(value = {"test"})
+class MemberAnalyticsRepositoryTest {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private MemberAnalyticsRepository memberAnalyticsRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 40, teamB));
+        em.persist(new Member("member6", 50));
+
+        // querydsl-sql 은 같은 커넥션으로 SQL 을 직접 실행하므로 먼저 flush 한다.
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("rankByAgeWithinTeam")
+    void rankByAgeWithinTeam() {
+        List<MemberRankDto> result = memberAnalyticsRepository.rankByAgeWithinTeam();
+
+        assertThat(result)
+            .extracting(MemberRankDto::getMemberName, MemberRankDto::getTeamName, MemberRankDto::getRank)
+            .containsExactly(
+                tuple("member2", "teamA", 1L),
+                tuple("member1", "teamA", 2L),
+                tuple("member4", "teamB", 1L),
+                tuple("member5", "teamB", 1L),
+                tuple("member3", "teamB", 3L));
+    }
+
+    @Test
+    @DisplayName("topByAgePerTeam")
+    void topByAgePerTeam() {
+        List<MemberRankDto> result = memberAnalyticsRepository.topByAgePerTeam(1);
+
+        assertThat(result)
+            .extracting(MemberRankDto::getMemberName, MemberRankDto::getAge, MemberRankDto::getRank)
+            .containsExactly(
+                tuple("member2", 20, 1L),
+                tuple("member4", 40, 1L),
+                tuple("member5", 40, 1L));
+    }
+
+    @Test
+    @DisplayName("streamRunningAgeTotals")
+    void streamRunningAgeTotals() {
+        List<MemberRunningTotalDto> result;
+        try (Stream<MemberRunningTotalDto> stream = memberAnalyticsRepository.streamRunningAgeTotals()) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        assertThat(result)
+            .extracting(MemberRunningTotalDto::getMemberName, MemberRunningTotalDto::getRunningAgeSum)
+            .containsExactly(
+                tuple("member1", 10L),
+                tuple("member2", 30L),
+                tuple("member3", 30L),
+                tuple("member4", 70L),
+                tuple("member5", 110L));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.querydsl.repository.batch;
+
+import static com.example.querydsl.domain.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 파티션이 각자 트랜잭션을 커밋하므로 테스트 트랜잭션 없이 실행하고 직접 지운다.
+@SpringBootTest(properties = {
+    "member.batch.parallelism=4",
+    "member.batch.partitions=8",
+    "member.batch.chunk-size=7"
+})
+@ActiveProfiles(value = {"test"})
+class MemberBatchRunnerTest {
+    private static final String JOB = "member-age-increment";
+
+    private static final String DELETE_JOB = "member-delete";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MemberBatchRunner memberBatchRunner;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            for (int i = 0; i < 100; i++) {
+                em.persist(new Member("member" + i, 10, i % 2 == 0 ? teamA : teamB));
+            }
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        memberBatchRunner.reset(JOB);
+        memberBatchRunner.reset(DELETE_JOB);
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from MemberNameTrigram").executeUpdate();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("processesMatchingMembersOnce")
+    void processesMatchingMembersOnce() {
+        MemberSearchCondition condition = MemberSearchCondition.builder().teamName("teamA").build();
+
+        MemberBatchResult result = memberBatchRunner.run(JOB, condition,
+            MemberChunkProcessor.update(update -> update.set(member.age, member.age.add(1))));
+
+        assertThat(result.getProcessed()).isEqualTo(50);
+        assertThat(ages("teamA")).hasSize(50).containsOnly(11);
+        assertThat(ages("teamB")).hasSize(50).containsOnly(10);
+
+        // 완료된 job 을 다시 실행해도 처리하지 않는다.
+        MemberBatchResult rerun = memberBatchRunner.run(JOB, condition,
+            MemberChunkProcessor.update(update -> update.set(member.age, member.age.add(1))));
+        assertThat(rerun.getProcessed()).isZero();
+        assertThat(rerun.getSkippedPartitions()).isEqualTo(rerun.getPartitions());
+        assertThat(ages("teamA")).containsOnly(11);
+    }
+
+    @Test
+    @DisplayName("resumesFromCheckpointAfterFailure")
+    void resumesFromCheckpointAfterFailure() {
+        MemberSearchCondition condition = MemberSearchCondition.builder().build();
+        MemberChunkProcessor increment =
+            MemberChunkProcessor.update(update -> update.set(member.age, member.age.add(1)));
+
+        // 첫 실행은 chunk 몇 개를 처리한 뒤 실패한다.
+        AtomicBoolean failed = new AtomicBoolean();
+        assertThatThrownBy(() -> memberBatchRunner.run(JOB, condition, (queryFactory, memberIds) -> {
+            increment.process(queryFactory, memberIds);
+            if (memberIds.size() < 7 && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("boom");
+            }
+        })).isInstanceOf(IllegalStateException.class);
+
+        MemberBatchResult resumed = memberBatchRunner.run(JOB, condition, increment);
+
+        // 실패한 chunk 는 롤백되었으므로 모든 member 가 정확히 한 번씩 처리된다.
+        assertThat(resumed.getProcessed()).isPositive().isLessThan(100);
+        assertThat(ages("teamA")).containsOnly(11);
+        assertThat(ages("teamB")).containsOnly(11);
+    }
+
+    @Test
+    @DisplayName("bulkRenameAndDeleteKeepNameIndexInSync")
+    void bulkRenameAndDeleteKeepNameIndexInSync() {
+        MemberSearchCondition condition = MemberSearchCondition.builder().build();
+
+        // bulk JPQL 로 이름을 바꾸면 Hibernate 리스너가 불리지 않는다.
+        memberBatchRunner.run(JOB, condition,
+            MemberChunkProcessor.update(update -> update.set(member.name, member.name.prepend("Renamed-"))));
+
+        assertThat(count("select count(m) from Member m where m.normalizedName <> lower(m.name)")).isZero();
+        assertThat(count("select count(t) from MemberNameTrigram t where t.trigram = 'ren'")).isEqualTo(100);
+
+        // 지운 member 의 색인도 남지 않는다.
+        memberBatchRunner.run(DELETE_JOB, condition, MemberChunkProcessor.delete());
+
+        assertThat(count("select count(t) from MemberNameTrigram t")).isZero();
+    }
+
+    private long count(String jpql) {
+        return transactionTemplate.execute(status -> em.createQuery(jpql, Long.class).getSingleResult());
+    }
+
+    private List<Integer> ages(String teamName) {
+        return transactionTemplate.execute(status -> em
+            .createQuery("select m.age from Member m where m.team.name = :teamName", Integer.class)
+            .setParameter("teamName", teamName)
+            .getResultList());
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.querydsl.repository.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.config.InvalidationProperties;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// outbox 는 commit 되어야 보이므로 데이터는 커밋해서 넣고 직접 지운다. poll 은 테스트에서 직접 호출하고,
+// 지운 행 때문에 생긴 id 공백은 기다리지 않는다.
+@SpringBootTest(properties = {
+    "invalidation.bus=outbox",
+    "invalidation.poll-interval=PT1H",
+    "invalidation.gap-timeout=0s"
+})
+@ActiveProfiles(value = {"test"})
+class OutboxInvalidationBusTest {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OutboxInvalidationBus outboxInvalidationBus;
+
+    @Autowired
+    private InvalidationProperties invalidationProperties;
+
+    @Autowired
+    private RecordingListener recordingListener;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from MEMBER_NAME_TRIGRAM");
+        jdbcTemplate.update("delete from MEMBER");
+        jdbcTemplate.update("delete from TEAM");
+        jdbcTemplate.update("delete from CACHE_INVALIDATION");
+        recordingListener.events.clear();
+    }
+
+    @Test
+    @DisplayName("eventsAreWrittenWithTheChange")
+    void eventsAreWrittenWithTheChange() {
+        // Given
+        int before = localRows();
+
+        // When
+        Long teamId = transactionTemplate.execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            em.persist(new Member("member1", 10, team));
+            em.persist(new Member("member2", 20, team));
+            return team.getId();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("member3", 30, em.find(Team.class, teamId)));
+            status.setRollbackOnly();
+        });
+
+        // Then: 트랜잭션마다 한 번에 기록되고, rollback 된 변경은 남지 않는다.
+        assertThat(localRows() - before).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from CACHE_INVALIDATION where entity_type = 'MEMBER' and team_id = ?",
+            Integer.class, teamId)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("remoteEventsAreDeliveredInBatches")
+    void remoteEventsAreDeliveredInBatches() {
+        // Given: 기동 이후 위치부터 읽는다.
+        outboxInvalidationBus.poll();
+        long remoteLag = lagCount("remote");
+        for (long teamId = 1; teamId <= 3; teamId++) {
+            jdbcTemplate.update("insert into CACHE_INVALIDATION"
+                    + " (entity_type, entity_id, team_id, previous_team_id, teams_known, node_id, created_at)"
+                    + " values ('TEAM', ?, ?, null, true, 'other-node', ?)",
+                teamId, teamId, Timestamp.from(Instant.now()));
+        }
+
+        // When
+        outboxInvalidationBus.poll();
+        outboxInvalidationBus.poll();
+
+        // Then
+        assertThat(recordingListener.events).hasSize(1);
+        assertThat(recordingListener.events.get(0))
+            .extracting(InvalidationEvent::getTeamId)
+            .containsExactly(1L, 2L, 3L);
+        assertThat(recordingListener.events.get(0))
+            .allMatch(event -> event.getNodeId().equals("other-node"));
+        assertThat(lagCount("remote") - remoteLag).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("lateCommitAfterGapTimeoutIsStillDelivered")
+    void lateCommitAfterGapTimeoutIsStillDelivered() throws Exception {
+        // Given: 먼저 id 를 받은 트랜잭션이 뒤의 행보다 늦게 commit 된다.
+        outboxInvalidationBus.poll();
+        try (Connection late = dataSource.getConnection()) {
+            late.setAutoCommit(false);
+            insertRemote(late, 1L);
+            insertRemote(2L);
+
+            // When: gap-timeout(0s) 이 지나 앞 id 를 건너뛴 뒤 commit 된다.
+            outboxInvalidationBus.poll();
+            late.commit();
+            outboxInvalidationBus.poll();
+        }
+
+        // Then: 건너뛴 행도 다음 poll 에서 전달된다.
+        assertThat(recordingListener.events).hasSize(2);
+        assertThat(recordingListener.events.get(0)).extracting(InvalidationEvent::getTeamId).containsExactly(2L);
+        assertThat(recordingListener.events.get(1)).extracting(InvalidationEvent::getTeamId).containsExactly(1L);
+    }
+
+    private void insertRemote(Long teamId) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            insertRemote(connection, teamId);
+        }
+    }
+
+    private static void insertRemote(Connection connection, Long teamId) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("insert into CACHE_INVALIDATION"
+            + " (entity_type, entity_id, team_id, previous_team_id, teams_known, node_id, created_at)"
+            + " values ('TEAM', ?, ?, null, true, 'other-node', ?)")) {
+            statement.setLong(1, teamId);
+            statement.setLong(2, teamId);
+            statement.setTimestamp(3, Timestamp.from(Instant.now()));
+            statement.executeUpdate();
+        }
+    }
+
+    private int localRows() {
+        return jdbcTemplate.queryForObject("select count(*) from CACHE_INVALIDATION where node_id = ?",
+            Integer.class, invalidationProperties.getNodeId());
+    }
+
+    private long lagCount(String origin) {
+        Timer timer = meterRegistry.find("cache.invalidation.lag").tag("origin", origin).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @TestConfiguration
+    static class RecordingListenerConfig {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements InvalidationListener {
+        private final List<List<InvalidationEvent>> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onInvalidation(List<InvalidationEvent> events) {
+            this.events.add(events);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.querydsl.repository.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.MemberJpaRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles(value = {"test"})
+class QueryPhasesTest {
+    private static final String[] EVENTS = {
+        "com.example.querydsl.MemberQuery",
+        "com.example.querydsl.QueryBuild",
+        "com.example.querydsl.QueryTranslate",
+        "com.example.querydsl.JdbcExecute",
+        "com.example.querydsl.ResultMapping"
+    };
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Test
+    @DisplayName("recordsEachPhase")
+    void recordsEachPhase() throws Exception {
+        // Given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+        em.flush();
+
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .teamName("teamA")
+            .ageGoe(15)
+            .build();
+
+        // When
+        List<RecordedEvent> events;
+        Path file = Files.createTempFile("query-phases", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            memberJpaRepository.searchByCondition(condition);
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Then
+        List<RecordedEvent> query = named(events, "com.example.querydsl.MemberQuery");
+        assertThat(query).hasSize(1);
+        assertThat(query.get(0).getString("method")).isEqualTo("MemberJpaRepository.searchByCondition");
+        assertThat(query.get(0).getString("conditionShape")).isEqualTo("teamName,ageGoe");
+        assertThat(query.get(0).getLong("rowCount")).isEqualTo(2);
+
+        assertThat(named(events, "com.example.querydsl.QueryBuild")).hasSize(1);
+        List<RecordedEvent> translate = named(events, "com.example.querydsl.QueryTranslate");
+        List<RecordedEvent> execute = named(events, "com.example.querydsl.JdbcExecute");
+        List<RecordedEvent> mapping = named(events, "com.example.querydsl.ResultMapping");
+        assertThat(translate).hasSize(1);
+        assertThat(execute).hasSize(1);
+        assertThat(mapping).hasSize(1);
+
+        // 같은 SQL 의 단계끼리 sqlHash 로 묶인다.
+        int sqlHash = execute.get(0).getInt("sqlHash");
+        assertThat(translate.get(0).getInt("sqlHash")).isEqualTo(sqlHash);
+        assertThat(mapping.get(0).getInt("sqlHash")).isEqualTo(sqlHash);
+        assertThat(query.get(0).getInt("sqlHash")).isEqualTo(sqlHash);
+        assertThat(mapping.get(0).getLong("rowCount")).isEqualTo(2);
+        assertThat(execute.get(0).getString("method")).isEqualTo("MemberJpaRepository.searchByCondition");
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .collect(Collectors.toList());
+    }
+}
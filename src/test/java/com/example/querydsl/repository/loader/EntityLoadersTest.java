@@ -0,0 +1,137 @@
+package com.example.querydsl.repository.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.MemberJpaRepository;
+import com.example.querydsl.repository.TeamRepository;
+import com.example.querydsl.repository.sharding.MemberShards;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@ActiveProfiles(value = {"test"})
+class EntityLoadersTest {
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MemberShards memberShards;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    private final List<Long> teamIds = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            teams.add(team);
+            teamIds.add(team.getId());
+        }
+        for (int i = 0; i < 10; i++) {
+            Member member = new Member("member" + i, i, teams.get(i % 3));
+            em.persist(member);
+            memberIds.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("oneQueryPerEntityType")
+    void oneQueryPerEntityType() {
+        EntityLoaders loaders = new EntityLoaders(memberJpaRepository, teamRepository, memberShards);
+        Map<Long, String> teamNameByMember = new ConcurrentHashMap<>();
+
+        // 각 member 를 따로 요청하고, member 가 로드되면 그 팀을 다시 요청한다.
+        for (Long memberId : memberIds) {
+            loaders.members().load(memberId)
+                .thenCompose(loaders::teamOf)
+                .thenAccept(team -> teamNameByMember.put(memberId, team.getName()));
+        }
+        loaders.dispatchAll();
+
+        assertThat(teamNameByMember).hasSize(10);
+        assertThat(teamNameByMember.get(memberIds.get(4))).isEqualTo("team1");
+        // member IN 조회 1번 + team IN 조회 1번
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("memoizedWithinLoader")
+    void memoizedWithinLoader() {
+        EntityLoaders loaders = new EntityLoaders(memberJpaRepository, teamRepository, memberShards);
+
+        Member first = loaders.members().get(memberIds.get(0));
+        loaders.members().loadMany(memberIds.subList(0, 3));
+        loaders.dispatchAll();
+        Member again = loaders.members().get(memberIds.get(0));
+
+        assertThat(again).isSameAs(first);
+        assertThat(loaders.members().get(-1L)).isNull();
+        // get(0) 1번 + 나머지 2개 1번 + 없는 id 1번
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("failingLoaderDoesNotStopOthers")
+    void failingLoaderDoesNotStopOthers() {
+        // Given: member 조회가 실패한다.
+        MemberJpaRepository failingMembers = mock(MemberJpaRepository.class);
+        IllegalStateException down = new IllegalStateException("member shard down");
+        given(failingMembers.findMembersById(any())).willThrow(down);
+        EntityLoaders loaders = new EntityLoaders(failingMembers, teamRepository, memberShards);
+
+        CompletableFuture<Member> member = loaders.members().load(memberIds.get(0));
+        CompletableFuture<Team> team = loaders.teams().load(teamIds.get(0));
+
+        // When & Then: 실패는 던지지만 team loader 는 dispatch 되어 완료된다.
+        assertThatThrownBy(loaders::dispatchAll).isSameAs(down);
+        assertThat(member).isCompletedExceptionally();
+        assertThat(team.join().getName()).isEqualTo("team0");
+    }
+
+    @Test
+    @DisplayName("oneAtATimeForComparison")
+    void oneAtATimeForComparison() {
+        for (Long memberId : memberIds) {
+            memberJpaRepository.findById(memberId).map(Member::getTeam).map(Team::getName);
+        }
+
+        // member 10번 + 팀 3번 (같은 영속성 컨텍스트에서 팀은 한 번씩만 초기화된다)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(13);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.querydsl.repository.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.controller.dto.MemberRankDto;
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.controller.dto.MemberTeamDto;
+import com.example.querydsl.controller.dto.TeamStatisticsDto;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.MemberCursorRepository;
+import com.example.querydsl.repository.MemberJpaRepository;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.analytics.MemberAnalyticsRepository;
+import com.example.querydsl.repository.invalidation.OutboxInvalidationBus;
+import com.example.querydsl.repository.statistics.TeamStatisticsReconciler;
+import com.example.querydsl.repository.statistics.TeamStatisticsStore;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// shard 작업은 다른 스레드에서 각자 트랜잭션으로 실행되므로 데이터는 직접 지운다.
+@SpringBootTest(properties = {
+    "sharding.enabled=true",
+    "sharding.shards[0].url=jdbc:h2:mem:sharded-test-0;DB_CLOSE_DELAY=-1",
+    "sharding.shards[0].username=sa",
+    "sharding.shards[1].url=jdbc:h2:mem:sharded-test-1;DB_CLOSE_DELAY=-1",
+    "sharding.shards[1].username=sa",
+    "sharding.shards[2].url=jdbc:h2:mem:sharded-test-2;DB_CLOSE_DELAY=-1",
+    "sharding.shards[2].username=sa",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "invalidation.bus=outbox",
+    "invalidation.poll-interval=PT1H",
+    "invalidation.gap-timeout=0s"
+})
+@ActiveProfiles(value = {"test"})
+class ShardedMemberRepositoryTest {
+    @Autowired
+    private ShardedMemberRepository shardedMemberRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberCursorRepository memberCursorRepository;
+
+    @Autowired
+    private MemberAnalyticsRepository memberAnalyticsRepository;
+
+    @Autowired
+    private MemberShards memberShards;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TeamStatisticsReconciler teamStatisticsReconciler;
+
+    @Autowired
+    private TeamStatisticsStore teamStatisticsStore;
+
+    @Autowired
+    private OutboxInvalidationBus outboxInvalidationBus;
+
+    @AfterEach
+    void afterEach() {
+        for (int shard = 0; shard < memberShards.count(); shard++) {
+            memberShards.on(shard, () -> {
+                jdbcTemplate.update("delete from CACHE_INVALIDATION");
+                jdbcTemplate.update("delete from MEMBER_NAME_TRIGRAM");
+                jdbcTemplate.update("delete from MEMBER");
+                return jdbcTemplate.update("delete from TEAM");
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("membersAreStoredWithTheirTeam")
+    void membersAreStoredWithTheirTeam() {
+        // Given
+        List<Member> members = saveMembers(6, 30);
+
+        // Then: 팀과 같은 shard 에 들어가고, id 로 그 shard 를 찾아간다.
+        for (Member member : members) {
+            int shard = memberShards.shardOfId(member.getId());
+            assertThat(shard).isEqualTo(memberShards.shardOfId(member.getTeam().getId()));
+            assertThat(countOn(shard, member.getId())).isEqualTo(1);
+            assertThat(shardedMemberRepository.findById(member.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getName()).isEqualTo(member.getName()));
+        }
+        assertThat(members.stream().map(member -> memberShards.shardOfId(member.getId())).distinct().count())
+            .isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("scatterGatherMergesPagesById")
+    void scatterGatherMergesPagesById() {
+        // Given
+        List<Long> ids = saveMembers(6, 30).stream()
+            .map(Member::getId)
+            .sorted()
+            .collect(Collectors.toList());
+        MemberSearchCondition condition = MemberSearchCondition.builder().ageGoe(0).build();
+
+        // When
+        Page<MemberTeamDto> page = memberRepository.searchPageComplex(condition, PageRequest.of(2, 7));
+        List<MemberTeamDto> all = memberRepository.search(condition);
+
+        // Then: 한 DB 였을 때와 같은 페이지와 total
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getContent()).extracting(MemberTeamDto::getMemberId)
+            .containsExactlyElementsOf(ids.subList(14, 21));
+        assertThat(all).extracting(MemberTeamDto::getMemberId).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    @DisplayName("teamNameGoesToOneShard")
+    void teamNameGoesToOneShard() {
+        // Given
+        saveMembers(6, 30);
+        MemberSearchCondition condition = MemberSearchCondition.builder().teamName("team1").build();
+
+        // When
+        Page<MemberTeamDto> page = memberRepository.searchPageComplex(condition, PageRequest.of(0, 20));
+
+        // Then
+        assertThat(memberShards.shardsFor(condition)).containsExactly(memberShards.shardOfTeamName("team1"));
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(MemberTeamDto::getTeamName).containsOnly("team1");
+    }
+
+    @Test
+    @DisplayName("searchByOrderMergesShardsInRequestedOrder")
+    void searchByOrderMergesShardsInRequestedOrder() {
+        // Given
+        List<Member> members = saveMembers(6, 30);
+        List<Long> byAgeDesc = members.stream()
+            .sorted(Comparator.comparing(Member::getAge).reversed())
+            .map(Member::getId)
+            .collect(Collectors.toList());
+        MemberSearchCondition condition = MemberSearchCondition.builder().build();
+
+        // When
+        List<MemberTeamDto> result = memberRepository.searchByOrder(condition,
+            PageRequest.of(1, 7, Sort.by(Sort.Direction.DESC, "age")));
+
+        // Then: 한 DB 였을 때와 같은 순서, 같은 페이지
+        assertThat(result).extracting(MemberTeamDto::getMemberId)
+            .containsExactlyElementsOf(byAgeDesc.subList(7, 14));
+    }
+
+    @Test
+    @DisplayName("searchByOrderRejectsSortThatCannotBeMerged")
+    void searchByOrderRejectsSortThatCannotBeMerged() {
+        // Given
+        saveMembers(6, 30);
+        MemberSearchCondition condition = MemberSearchCondition.builder().build();
+
+        // When / Then
+        assertThatThrownBy(() -> memberRepository.searchByOrder(condition,
+            PageRequest.of(0, 7, Sort.by("normalizedName"))))
+            .isInstanceOf(UnsupportedShardQueryException.class);
+        assertThat(memberRepository.searchByOrder(MemberSearchCondition.builder().teamName("team1").build(),
+            PageRequest.of(0, 7, Sort.by("normalizedName")))).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("jpaRepositoryReadsEveryShard")
+    void jpaRepositoryReadsEveryShard() {
+        // Given
+        List<Long> ids = saveMembers(6, 30).stream()
+            .map(Member::getId)
+            .sorted()
+            .collect(Collectors.toList());
+        List<Long> reversed = new ArrayList<>(ids);
+        reversed.sort(Comparator.reverseOrder());
+        MemberSearchCondition all = MemberSearchCondition.builder().ageGoe(0).build();
+        MemberSearchCondition team1 = MemberSearchCondition.builder().teamName("team1").build();
+
+        // When / Then: 0 번 shard 만 보지 않는다.
+        assertThat(memberJpaRepository.searchByCondition(all)).hasSize(30);
+        assertThat(memberJpaRepository.findAll(all)).hasSize(30);
+        assertThat(memberJpaRepository.searchColumns(all).size()).isEqualTo(30);
+        assertThat(memberJpaRepository.searchByConditions(List.of(all, team1)))
+            .extracting(List::size)
+            .containsExactly(30, 5);
+        assertThat(memberJpaRepository.findAllById(reversed)).extracting(MemberTeamDto::getMemberId)
+            .containsExactlyElementsOf(reversed);
+        assertThat(memberJpaRepository.findMembersById(ids)).hasSize(30);
+        assertThat(memberJpaRepository.searchAfter(all, ids.get(9), 7)).extracting(MemberTeamDto::getMemberId)
+            .containsExactlyElementsOf(ids.subList(10, 17));
+        try (Stream<Member> members = memberCursorRepository.stream(all)) {
+            assertThat(members.count()).isEqualTo(30);
+        }
+        assertThat(memberAnalyticsRepository.rankByAgeWithinTeam()).hasSize(30)
+            .isSortedAccordingTo(Comparator.comparing(MemberRankDto::getTeamId));
+    }
+
+    @Test
+    @DisplayName("reconcileCountsTeamsOnEveryShard")
+    void reconcileCountsTeamsOnEveryShard() {
+        // Given
+        saveMembers(6, 30);
+
+        // When
+        teamStatisticsReconciler.reconcile();
+
+        // Then: 0 번 shard 가 아닌 팀도 남아 있다.
+        List<TeamStatisticsDto> statistics = teamStatisticsStore.findAll();
+        assertThat(statistics).extracting(TeamStatisticsDto::getTeamName)
+            .containsExactly("team0", "team1", "team2", "team3", "team4", "team5");
+        assertThat(statistics).extracting(TeamStatisticsDto::getMemberCount).containsOnly(5L);
+        assertThat(statistics.stream().map(dto -> memberShards.shardOfId(dto.getTeamId())).distinct().count())
+            .isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("outboxEventsAreDeliveredOnTheirShard")
+    void outboxEventsAreDeliveredOnTheirShard() {
+        // Given: 0 번이 아닌 shard 의 팀을 다른 노드가 바꾼 것처럼 직접 바꾸고 이벤트를 남긴다.
+        List<Member> members = saveMembers(6, 30);
+        teamStatisticsReconciler.reconcile();
+        outboxInvalidationBus.poll();
+        Member changed = members.stream()
+            .filter(member -> memberShards.shardOfId(member.getId()) != 0)
+            .findFirst()
+            .orElseThrow();
+        Long teamId = changed.getTeam().getId();
+        memberShards.on(memberShards.shardOfId(teamId), () -> {
+            jdbcTemplate.update("update MEMBER set age = 99 where id = ?", changed.getId());
+            return jdbcTemplate.update("insert into CACHE_INVALIDATION"
+                    + " (entity_type, entity_id, team_id, previous_team_id, teams_known, node_id, created_at)"
+                    + " values ('MEMBER', ?, ?, null, true, 'other-node', ?)",
+                changed.getId(), teamId, Timestamp.from(Instant.now()));
+        });
+
+        // When
+        outboxInvalidationBus.poll();
+
+        // Then: 그 팀의 shard 에서 다시 센다. (0 번 shard 에서 세면 팀이 통계에서 빠진다)
+        assertThat(teamStatisticsStore.findAll())
+            .filteredOn(dto -> dto.getTeamId().equals(teamId))
+            .singleElement()
+            .satisfies(dto -> {
+                assertThat(dto.getMemberCount()).isEqualTo(5L);
+                assertThat(dto.getAgeMax()).isEqualTo(99);
+            });
+    }
+
+    private List<Member> saveMembers(int teamCount, int memberCount) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(shardedMemberRepository.save(new Team("team" + i)));
+        }
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            members.add(shardedMemberRepository.save(new Member("member" + i, i, teams.get(i % teamCount))));
+        }
+        return members;
+    }
+
+    private Integer countOn(int shard, Long memberId) {
+        return memberShards.on(shard, () ->
+            jdbcTemplate.queryForObject("select count(*) from MEMBER where id = ?", Integer.class, memberId));
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.querydsl.repository.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.TeamStatisticsDto;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.statistics.TeamStatisticsStore.ReconcileResult;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles(value = {"test"})
+class TeamStatisticsStoreTest {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TeamStatisticsStore store;
+
+    @Autowired
+    private TeamStatisticsReconciler reconciler;
+
+    // store 는 context 의 singleton 이라 같은 context 를 쓴 다른 테스트의 팀이 남아 있을 수 있다.
+    // 테스트마다 DB 를 비우고 store 를 다시 맞춰 이 테스트가 만든 팀만 보이게 한다.
+    @BeforeEach
+    void beforeEach() {
+        deleteAllAndReconcile();
+        assertThat(store.findAll()).isEmpty();
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAllAndReconcile();
+    }
+
+    @Test
+    @DisplayName("maintainedIncrementally")
+    void maintainedIncrementally() {
+        // Given
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            Member member1 = new Member("member1", 10, teamA);
+            Member member2 = new Member("member2", 20, teamA);
+            Member member3 = new Member("member3", 30, teamB);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(member3);
+            return new Long[]{member1.getId(), member2.getId()};
+        });
+
+        assertThat(store.findAll())
+            .containsExactly(
+                new TeamStatisticsDto(teamId("teamA"), "teamA", 2L, 30L, 15.0, 10, 20),
+                new TeamStatisticsDto(teamId("teamB"), "teamB", 1L, 30L, 30.0, 30, 30));
+
+        // When: age change
+        transactionTemplate.executeWithoutResult(status ->
+            em.find(Member.class, ids[0]).changeAge(40));
+
+        // Then
+        assertThat(store.findAll().get(0))
+            .isEqualTo(new TeamStatisticsDto(teamId("teamA"), "teamA", 2L, 60L, 30.0, 20, 40));
+
+        // When: delete
+        transactionTemplate.executeWithoutResult(status ->
+            em.remove(em.find(Member.class, ids[1])));
+
+        // Then
+        assertThat(store.findAll().get(0))
+            .isEqualTo(new TeamStatisticsDto(teamId("teamA"), "teamA", 1L, 40L, 40.0, 40, 40));
+    }
+
+    @Test
+    @DisplayName("rolledBackChangesAreIgnored")
+    void rolledBackChangesAreIgnored() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = em.find(Team.class, teamId("teamA"));
+            em.persist(new Member("member2", 20, teamA));
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(store.findAll())
+            .extracting(TeamStatisticsDto::getMemberCount)
+            .containsExactly(1L);
+
+        // flush 때 남긴 pending 이 rollback 으로 풀려야 reconcile 이 팀을 다시 맞춘다.
+        transactionTemplate.executeWithoutResult(status ->
+            em.createQuery("update Member m set m.age = 11").executeUpdate());
+        reconciler.reconcile();
+        assertThat(store.findAll())
+            .extracting(TeamStatisticsDto::getAgeMax)
+            .containsExactly(11);
+    }
+
+    @Test
+    @DisplayName("reconcileMatchesGroupBy")
+    void reconcileMatchesGroupBy() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", null, teamA));
+        });
+
+        // 벌크 연산은 이벤트가 발생하지 않으므로 reconciliation 으로만 반영된다.
+        transactionTemplate.executeWithoutResult(status ->
+            em.createQuery("update Member m set m.age = m.age + 1 where m.age is not null")
+                .executeUpdate());
+        assertThat(store.findAll().get(0).getAgeMax()).isEqualTo(10);
+
+        reconciler.reconcile();
+
+        assertThat(store.findAll())
+            .containsExactly(
+                new TeamStatisticsDto(teamId("teamA"), "teamA", 2L, 11L, 11.0, 11, 11));
+    }
+
+    @Test
+    @DisplayName("reconcileKeepsChangesCommittedWhileCounting")
+    void reconcileKeepsChangesCommittedWhileCounting() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+        });
+        Long teamA = teamId("teamA");
+
+        // Given: group by 는 member1 만 읽었고, 그 뒤에 member2 가 commit 되었다.
+        long since = store.version();
+        TeamCounter counted = new TeamCounter(teamA, "teamA");
+        counted.add(10, 1);
+        transactionTemplate.executeWithoutResult(status ->
+            em.persist(new Member("member2", 20, em.find(Team.class, teamA))));
+
+        // When
+        store.reconcile(since, Set.of(teamA), Map.of(teamA, counted));
+
+        // Then: listener 가 반영한 member2 를 덮어쓰지 않는다.
+        assertThat(store.findAll())
+            .containsExactly(new TeamStatisticsDto(teamA, "teamA", 2L, 30L, 15.0, 10, 20));
+
+        // 그 사이 바뀌지 않은 팀은 그대로 맞춘다.
+        store.reconcile(store.version(), Set.of(teamA), Map.of(teamA, counted));
+        assertThat(store.findAll())
+            .containsExactly(new TeamStatisticsDto(teamA, "teamA", 1L, 10L, 10.0, 10, 10));
+    }
+
+    @Test
+    @DisplayName("reconcileSkipsChangesCommittedBeforeListener")
+    void reconcileSkipsChangesCommittedBeforeListener() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+        });
+        Long teamA = teamId("teamA");
+
+        // Given: member2 는 DB 에 commit 되어 group by 에 들어갔지만 POST_COMMIT listener 는 아직 실행 전이다.
+        TeamCounter counted = new TeamCounter(teamA, "teamA");
+        counted.add(10, 1);
+        counted.add(20, 1);
+        AtomicReference<ReconcileResult> result = new AtomicReference<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // 먼저 등록한 process 가 insert action 의 listener 보다 먼저 실행된다.
+            em.unwrap(SessionImplementor.class).getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, session) ->
+                    result.set(store.reconcile(store.version(), Set.of(teamA), Map.of(teamA, counted))));
+            em.persist(new Member("member2", 20, em.find(Team.class, teamA)));
+        });
+
+        // Then: reconcile 이 팀을 건너뛰어 listener 가 member2 를 한 번만 더한다.
+        assertThat(result.get().getSkipped()).isEqualTo(1);
+        assertThat(store.findAll())
+            .containsExactly(new TeamStatisticsDto(teamA, "teamA", 2L, 30L, 15.0, 10, 20));
+    }
+
+    private void deleteAllAndReconcile() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        reconciler.reconcile();
+    }
+
+    private Long teamId(String name) {
+        return em.createQuery("select t.id from Team t where t.name = :name", Long.class)
+            .setParameter("name", name)
+            .getSingleResult();
+    }
+}
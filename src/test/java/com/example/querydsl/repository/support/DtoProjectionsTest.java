@@ -0,0 +1,129 @@
+package com.example.querydsl.repository.support;
+
+import static com.example.querydsl.domain.QMember.member;
+import static com.example.querydsl.domain.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.querydsl.controller.dto.MemberDto;
+import com.example.querydsl.controller.dto.MemberTeamDto;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.QMember;
+import com.example.querydsl.domain.Team;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles(value = {"test"})
+class DtoProjectionsTest {
+    @PersistenceContext
+    private EntityManager em;
+
+    private JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    void beforeEach() {
+        queryFactory = new JPAQueryFactory(em);
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("constructor")
+    void constructor() {
+        List<MemberTeamDto> result = queryFactory
+            .select(DtoProjections.constructor(MemberTeamDto.class,
+                member.id, member.name, member.age, team.id, team.name))
+            .from(member)
+            .leftJoin(member.team, team)
+            .orderBy(member.name.asc())
+            .fetch();
+
+        assertThat(result)
+            .extracting(MemberTeamDto::getMemberName, MemberTeamDto::getAge, MemberTeamDto::getTeamName)
+            .containsExactly(
+                tuple("member1", 10, "teamA"),
+                tuple("member2", 20, "teamA"));
+    }
+
+    @Test
+    @DisplayName("beanAndFieldsBindImmutableDtoByConstructorParameterName")
+    void beanAndFieldsBindImmutableDtoByConstructorParameterName() {
+        List<MemberDto> byBean = queryFactory
+            .select(DtoProjections.bean(MemberDto.class, member.age, member.name))
+            .from(member)
+            .orderBy(member.name.asc())
+            .fetch();
+
+        List<MemberDto> byFields = queryFactory
+            .select(DtoProjections.fields(MemberDto.class, member.age, member.name))
+            .from(member)
+            .orderBy(member.name.asc())
+            .fetch();
+
+        assertThat(byBean).containsExactly(new MemberDto("member1", 10), new MemberDto("member2", 20));
+        assertThat(byFields).isEqualTo(byBean);
+    }
+
+    @Test
+    @DisplayName("aliasedExpressions")
+    void aliasedExpressions() {
+        QMember memberSub = new QMember("memberSub");
+
+        List<MemberBean> result = queryFactory
+            .select(DtoProjections.bean(MemberBean.class,
+                member.name.as("username"),
+                ExpressionUtils.as(
+                    JPAExpressions
+                        .select(memberSub.age.max())
+                        .from(memberSub), "age")))
+            .from(member)
+            .fetch();
+
+        assertThat(result).hasSize(2)
+            .allSatisfy(bean -> assertThat(bean.getAge()).isEqualTo(20))
+            .extracting(MemberBean::getUsername)
+            .containsExactlyInAnyOrder("member1", "member2");
+    }
+
+    @Test
+    @DisplayName("fieldsWithDefaultConstructor")
+    void fieldsWithDefaultConstructor() {
+        List<MemberBean> result = queryFactory
+            .select(DtoProjections.fields(MemberBean.class, member.name.as("username"), member.age))
+            .from(member)
+            .orderBy(member.name.asc())
+            .fetch();
+
+        assertThat(result)
+            .extracting(MemberBean::getUsername, MemberBean::getAge)
+            .containsExactly(tuple("member1", 10), tuple("member2", 20));
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class MemberBean {
+        private String username;
+        private int age;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.querydsl.repository.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.persistence.EntityManager;
+
+/**
+ * p6spy 로 실행된 select 문을 값이 채워진 SQL 로 모은다. (@Import 로 등록하면 p6spy 가 listener 로 쓴다.)
+ * 직접 쓴 SQL 이 아니라 Querydsl/Spring Data 가 실제로 만든 SQL 의 실행 계획을 볼 때 쓴다.
+ */
+public class ExecutedSql extends SimpleJdbcEventListener {
+    private final List<String> selects = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos,
+        SQLException e) {
+        String sql = statementInformation.getSqlWithValues();
+        if (e == null && sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+            selects.add(sql);
+        }
+    }
+
+    public void clear() {
+        selects.clear();
+    }
+
+    // 마지막으로 실행된 select 의 H2 EXPLAIN 결과. 다음 조회를 위해 모은 SQL 은 비운다.
+    public String explainLast(EntityManager em) {
+        if (selects.isEmpty()) {
+            throw new IllegalStateException("No select was executed");
+        }
+        String sql = selects.get(selects.size() - 1);
+        clear();
+        return (String) em.createNativeQuery("explain " + sql).getSingleResult();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class QueryCancellationTest {
+    // 1e10 row 를 세는 쿼리: 취소하지 않으면 끝나지 않는다.
+    private static final String SLOW_QUERY =
+        "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b";
+
+    private final DataSource dataSource =
+        QueryCancellation.track(new DriverManagerDataSource("jdbc:h2:mem:cancellation", "sa", ""));
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("cancelStopsRunningStatement")
+    void cancelStopsRunningStatement() throws Exception {
+        QueryCancellation cancellation = new QueryCancellation();
+
+        Future<?> query = executor.submit(() -> {
+            cancellation.bind();
+            try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+                statement.executeQuery(SLOW_QUERY);
+                return null;
+            } finally {
+                QueryCancellation.unbind();
+            }
+        });
+
+        for (int i = 0; i < 100 && cancellation.runningCount() == 0; i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(cancellation.cancel()).isEqualTo(1);
+        assertThatThrownBy(() -> query.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(SQLException.class);
+    }
+
+    @Test
+    @DisplayName("cancelledRequestDoesNotStartNewStatement")
+    void cancelledRequestDoesNotStartNewStatement() throws Exception {
+        QueryCancellation cancellation = new QueryCancellation();
+        cancellation.cancel();
+
+        cancellation.bind();
+        try (Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            assertThatThrownBy(() -> statement.executeQuery("select 1"))
+                .isInstanceOf(SQLTimeoutException.class);
+        } finally {
+            QueryCancellation.unbind();
+        }
+    }
+
+    @Test
+    @DisplayName("untrackedThreadIsNotAffected")
+    void untrackedThreadIsNotAffected() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            assertThat(statement.executeQuery("select 1").next()).isTrue();
+        }
+    }
+}
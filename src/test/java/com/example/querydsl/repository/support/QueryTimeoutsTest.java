@@ -0,0 +1,152 @@
+package com.example.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.controller.dto.MemberSearchCondition;
+import com.example.querydsl.domain.QMember;
+import com.example.querydsl.repository.MemberCursorRepository;
+import com.example.querydsl.repository.MemberJpaRepository;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.analytics.MemberAnalyticsRepository;
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DataSourceDecorator;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+// 실제 Statement 의 getQueryTimeout 을 실행할 때 읽어 SQL 별로 남긴다.
+@SpringBootTest(properties = {
+    "query-timeout.default-timeout=13s",
+    "query-timeout.methods[MemberJpaRepository.searchByCondition]=7s",
+    "query-timeout.methods[MemberAnalyticsRepository.rankByAgeWithinTeam]=5s"
+})
+@ActiveProfiles(value = {"test"})
+class QueryTimeoutsTest {
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberCursorRepository memberCursorRepository;
+
+    @Autowired
+    private MemberAnalyticsRepository memberAnalyticsRepository;
+
+    @Autowired
+    private StatementTimeouts statementTimeouts;
+
+    @BeforeEach
+    void beforeEach() {
+        statementTimeouts.bySql.clear();
+    }
+
+    @Test
+    @DisplayName("methodTimeoutReachesStatement")
+    void methodTimeoutReachesStatement() {
+        memberJpaRepository.searchByCondition(MemberSearchCondition.builder().ageGoe(20).build());
+        memberAnalyticsRepository.rankByAgeWithinTeam();
+
+        assertThat(statementTimeouts.of("from member member0_")).containsOnly(7);
+        assertThat(statementTimeouts.of("rank() over")).containsOnly(5);
+    }
+
+    @Test
+    @DisplayName("defaultTimeoutReachesEveryOtherStatement")
+    void defaultTimeoutReachesEveryOtherStatement() {
+        // Querydsl (메서드 설정 없음)
+        memberJpaRepository.findMembersById(List.of(1L, 2L));
+        // Spring Data (/v5)
+        memberRepository.findAll(QMember.member.age.goe(20), PageRequest.of(0, 10));
+        // em.createQuery
+        memberJpaRepository.findByName("member1");
+        // StatelessSession
+        try (Stream<?> members = memberCursorRepository.stream(MemberSearchCondition.builder().build())) {
+            members.count();
+        }
+
+        assertThat(statementTimeouts.bySql).isNotEmpty();
+        assertThat(statementTimeouts.bySql.values()).allSatisfy(timeouts -> assertThat(timeouts).containsOnly(13));
+    }
+
+    @TestConfiguration
+    static class StatementTimeoutsConfig {
+        @Bean
+        StatementTimeouts statementTimeouts() {
+            return new StatementTimeouts();
+        }
+    }
+
+    static class StatementTimeouts implements DataSourceDecorator {
+        private final Map<String, List<Integer>> bySql = new ConcurrentHashMap<>();
+
+        List<Integer> of(String sqlPart) {
+            return bySql.entrySet().stream()
+                .filter(entry -> entry.getKey().contains(sqlPart))
+                .flatMap(entry -> entry.getValue().stream())
+                .collect(Collectors.toList());
+        }
+
+        @Override
+        public DataSource decorate(String beanName, DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return method.getName().equals("getConnection")
+                    ? proxy(Connection.class, result, this::connection)
+                    : result;
+            });
+        }
+
+        private Object connection(Object target, Method method, Object[] args) throws Throwable {
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("prepareStatement")) {
+                String sql = ((String) args[0]).toLowerCase();
+                return proxy(method.getReturnType(), result, (statement, statementMethod, statementArgs) -> {
+                    if (statementMethod.getName().startsWith("execute")) {
+                        bySql.computeIfAbsent(sql, key -> new CopyOnWriteArrayList<>())
+                            .add(((Statement) statement).getQueryTimeout());
+                    }
+                    return invoke(statement, statementMethod, statementArgs);
+                });
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<?> type, Object target, Invocation invocation) {
+            return (T) Proxy.newProxyInstance(StatementTimeouts.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> invocation.invoke(target, method, args));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @FunctionalInterface
+        private interface Invocation {
+            Object invoke(Object target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.querydsl.repository.workload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.domain.QMember;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.TeamRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles(value = {"test"})
+class WorkloadAnnotationPostProcessorTest {
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("springDataRepositoriesRunInInteractiveBulkhead")
+    void springDataRepositoriesRunInInteractiveBulkhead() {
+        long before = interactiveAcquired();
+
+        // /v5 가 쓰는 QuerydslPredicateExecutor 메서드와 인터페이스의 default 메서드
+        memberRepository.findAll(QMember.member.age.goe(20), PageRequest.of(0, 10));
+        teamRepository.searchByNameIgnoreCase("teamA");
+
+        // default 메서드 안의 findByNormalizedName 은 같은 workload 의 중첩 호출이라 permit 을 다시 얻지 않는다.
+        assertThat(interactiveAcquired() - before).isEqualTo(2);
+        assertThat(memberRepository.toString()).isNotNull();
+        assertThat(interactiveAcquired() - before).isEqualTo(2);
+    }
+
+    private long interactiveAcquired() {
+        return meterRegistry.timer("workload.wait", "workload", "interactive").count();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.querydsl.repository.workload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.config.WorkloadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class WorkloadBulkheadsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final WorkloadBulkheads bulkheads = new WorkloadBulkheads(properties(), meterRegistry);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("bulkIsRejectedWithoutStarvingInteractive")
+    void bulkIsRejectedWithoutStarvingInteractive() throws Exception {
+        // Given: bulk permit 하나를 다른 스레드가 잡고 있다.
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = executor.submit(() -> bulkheads.run(WorkloadClass.BULK, () -> {
+            started.countDown();
+            await(release);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        // When & Then
+        assertThatThrownBy(() -> bulkheads.run(WorkloadClass.BULK, () -> { }))
+            .isInstanceOf(RejectedExecutionException.class);
+        assertThat(bulkheads.execute(WorkloadClass.INTERACTIVE, () -> 1)).isEqualTo(1);
+        assertThat(meterRegistry.counter("workload.rejected", "workload", "bulk").count()).isEqualTo(1);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertThat(bulkheads.activeCount(WorkloadClass.BULK)).isZero();
+    }
+
+    @Test
+    @DisplayName("nestedCallReusesPermit")
+    void nestedCallReusesPermit() {
+        // bulk 한도가 1 이어도 같은 스레드의 중첩 호출은 기다리지 않는다.
+        int result = bulkheads.execute(WorkloadClass.BULK,
+            () -> bulkheads.execute(WorkloadClass.BULK, () -> bulkheads.activeCount(WorkloadClass.BULK)));
+
+        assertThat(result).isEqualTo(1);
+        assertThat(bulkheads.activeCount(WorkloadClass.BULK)).isZero();
+    }
+
+    @Test
+    @DisplayName("nestedCallOfOtherWorkloadTakesItsOwnPermit")
+    void nestedCallOfOtherWorkloadTakesItsOwnPermit() throws Exception {
+        // interactive 안에서 부른 bulk 작업도 bulk permit 을 센다.
+        int nested = bulkheads.execute(WorkloadClass.INTERACTIVE,
+            () -> bulkheads.execute(WorkloadClass.BULK, () -> bulkheads.activeCount(WorkloadClass.BULK)));
+        assertThat(nested).isEqualTo(1);
+
+        // Given: bulk permit 을 다른 스레드가 잡고 있으면 interactive 안의 bulk 호출도 거절된다.
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = executor.submit(() -> bulkheads.run(WorkloadClass.BULK, () -> {
+            started.countDown();
+            await(release);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> bulkheads.run(WorkloadClass.INTERACTIVE,
+            () -> bulkheads.run(WorkloadClass.BULK, () -> { })))
+            .isInstanceOf(RejectedExecutionException.class);
+        assertThat(bulkheads.activeCount(WorkloadClass.INTERACTIVE)).isZero();
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("streamReleasesPermitOnClose")
+    void streamReleasesPermitOnClose() {
+        Stream<Integer> stream = bulkheads.execute(WorkloadClass.BULK, () -> Stream.of(1, 2, 3));
+        assertThat(bulkheads.activeCount(WorkloadClass.BULK)).isEqualTo(1);
+
+        try (Stream<Integer> numbers = stream) {
+            assertThat(numbers.count()).isEqualTo(3);
+        }
+        assertThat(bulkheads.activeCount(WorkloadClass.BULK)).isZero();
+    }
+
+    @Test
+    @DisplayName("unclosedStreamReleasesPermitWhenCollected")
+    void unclosedStreamReleasesPermitWhenCollected() throws Exception {
+        openAndDropStream();
+        assertThat(bulkheads.activeCount(WorkloadClass.BULK)).isEqualTo(1);
+
+        for (int i = 0; i < 100 && bulkheads.activeCount(WorkloadClass.BULK) > 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertThat(bulkheads.activeCount(WorkloadClass.BULK)).isZero();
+        assertThat(meterRegistry.counter("workload.stream.leaked", "workload", "bulk").count()).isEqualTo(1);
+        assertThat(bulkheads.execute(WorkloadClass.BULK, () -> 1)).isEqualTo(1);
+    }
+
+    // 다 읽었지만 닫지 않은 Stream. 이 메서드가 끝나면 참조가 남지 않는다.
+    private void openAndDropStream() {
+        Stream<Integer> stream = bulkheads.execute(WorkloadClass.BULK, () -> Stream.of(1, 2, 3));
+        assertThat(stream.count()).isEqualTo(3);
+    }
+
+    private static WorkloadProperties properties() {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.setInteractive(new WorkloadProperties.Limit(2, Duration.ofMillis(50)));
+        properties.setBulk(new WorkloadProperties.Limit(1, Duration.ofMillis(50)));
+        return properties;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.querydsl.repository.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.example.querydsl.config.InvalidationProperties;
+import com.example.querydsl.domain.Member;
+import com.example.querydsl.domain.Team;
+import com.example.querydsl.repository.invalidation.InvalidationBus;
+import com.example.querydsl.repository.sharding.MemberShards;
+import com.example.querydsl.repository.workload.WorkloadBulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles(value = {"test"})
+class MemberUpdateBufferTest {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkloadBulkheads workloadBulkheads;
+
+    @Autowired
+    private ObjectProvider<InvalidationBus> invalidationBus;
+
+    @Autowired
+    private InvalidationProperties invalidationProperties;
+
+    @Autowired
+    private MemberShards memberShards;
+
+    @Autowired
+    private MemberUpdateBuffer memberUpdateBuffer;
+
+    @AfterEach
+    void afterEach() {
+        memberUpdateBuffer.flush();
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("coalescesUpdatesPerMember")
+    void coalescesUpdatesPerMember() {
+        // Given
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            Member member1 = new Member("member1", 10, teamA);
+            Member member2 = new Member("member2", 20, teamA);
+            em.persist(member1);
+            em.persist(member2);
+            return new Long[]{member1.getId(), member2.getId(), teamB.getId()};
+        });
+
+        // When
+        memberUpdateBuffer.updateAge(ids[0], 11);
+        memberUpdateBuffer.updateAge(ids[0], 12);
+        memberUpdateBuffer.updateTeam(ids[0], ids[2]);
+        memberUpdateBuffer.updateTeam(ids[1], ids[2]);
+        memberUpdateBuffer.flush();
+
+        // Then
+        assertThat(memberUpdateBuffer.pendingCount()).isZero();
+        assertThat(ageAndTeam(ids[0])).containsExactly(12, ids[2]);
+        assertThat(ageAndTeam(ids[1])).containsExactly(20, ids[2]);
+    }
+
+    @Test
+    @DisplayName("rejectsWhenFullAndNotFlushed")
+    void rejectsWhenFullAndNotFlushed() {
+        // flush-threshold 를 넘지 않고 용량이 2 인 버퍼: 가득 차면 submit-timeout 뒤 거절된다.
+        MemberUpdateBuffer buffer = new MemberUpdateBuffer(jdbcTemplate, transactionManager,
+            workloadBulkheads, invalidationBus, invalidationProperties, memberShards, new SimpleMeterRegistry(), 2, 100,
+            Duration.ofMillis(50), 10) {
+            @Override
+            public synchronized void flush() {
+                // 백그라운드 flush 가 자리를 비우지 못하도록 한다.
+            }
+        };
+
+        buffer.updateAge(1L, 10);
+        buffer.updateAge(2L, 10);
+        buffer.updateAge(1L, 11);
+
+        assertThatThrownBy(() -> buffer.updateAge(3L, 10))
+            .isInstanceOf(RejectedExecutionException.class);
+        assertThat(buffer.pendingCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("dropsUpdateThatViolatesForeignKey")
+    void dropsUpdateThatViolatesForeignKey() {
+        // Given
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+
+            Member member1 = new Member("member1", 10, teamA);
+            Member member2 = new Member("member2", 20, teamA);
+            Member member3 = new Member("member3", 30, teamA);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(member3);
+            return new Long[]{member1.getId(), member2.getId(), member3.getId(), teamA.getId()};
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MemberUpdateBuffer buffer = new MemberUpdateBuffer(jdbcTemplate, transactionManager,
+            workloadBulkheads, invalidationBus, invalidationProperties, memberShards, meterRegistry, 3, 100,
+            Duration.ofMillis(50), 10);
+
+        // When: 없는 team 으로 옮기는 변경이 정상 변경 사이에 있다.
+        buffer.updateAge(ids[0], 11);
+        buffer.updateTeam(ids[1], ids[3] + 1_000);
+        buffer.updateAge(ids[2], 31);
+        buffer.flush();
+
+        // Then: 위반한 변경만 버려지고 나머지는 쓰인다.
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(ageAndTeam(ids[0])).containsExactly(11, ids[3]);
+        assertThat(ageAndTeam(ids[1])).containsExactly(20, ids[3]);
+        assertThat(ageAndTeam(ids[2])).containsExactly(31, ids[3]);
+        assertThat(meterRegistry.counter("member.update-buffer.dropped", "reason", "integrity").count())
+            .isEqualTo(1);
+
+        // 버린 변경의 permit 도 돌려받아 용량(3)만큼 다시 받을 수 있다.
+        buffer.updateAge(ids[0], 12);
+        buffer.updateAge(ids[1], 22);
+        buffer.updateAge(ids[2], 32);
+        buffer.flush();
+        assertThat(ageAndTeam(ids[1])).containsExactly(22, ids[3]);
+    }
+
+    @Test
+    @DisplayName("dropsUpdateAfterMaxAttempts")
+    void dropsUpdateAfterMaxAttempts() {
+        // 매번 일시적인 오류로 실패하는 DB
+        JdbcTemplate failingJdbcTemplate = mock(JdbcTemplate.class);
+        given(failingJdbcTemplate.batchUpdate(anyString(), anyList()))
+            .willThrow(new TransientDataAccessResourceException("database is restarting"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MemberUpdateBuffer buffer = new MemberUpdateBuffer(failingJdbcTemplate, transactionManager,
+            workloadBulkheads, invalidationBus, invalidationProperties, memberShards, meterRegistry, 1, 100,
+            Duration.ofMillis(50), 3);
+
+        buffer.updateAge(1L, 10);
+        buffer.flush();
+        buffer.flush();
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+
+        buffer.flush();
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(meterRegistry.counter("member.update-buffer.dropped", "reason", "retries").count())
+            .isEqualTo(1);
+
+        // permit 이 돌아와 용량이 1 인 버퍼가 다음 변경을 받는다.
+        buffer.updateAge(2L, 10);
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+    }
+
+    private Object[] ageAndTeam(Long memberId) {
+        return jdbcTemplate.queryForObject("select age, team_id from MEMBER where id = ?",
+            (rs, rowNum) -> new Object[]{rs.getInt(1), rs.getLong(2)}, memberId);
+    }
+}